@@ -0,0 +1,182 @@
+package resistance;
+
+import java.util.*;
+
+/**
+ * Benchmarks of the game engine and the bundled agents.
+ *
+ * Measures whole games per second for every player count from 5 to 10 with each mix of bots,
+ * and single calls of GAgent.do_Vote, GAgent.get_Traitors and Game.nominate.
+ * Run with the names (or prefixes of names) of the benchmarks to run, or none to run them all, e.g.
+ * <pre>
+ *  java -cp bin resistance.GameBenchmarks play.pingu
+ * </pre>
+ * The system properties bench.warmups, bench.iterations and bench.millis set the length of each run.
+ * The runs are timed by TimedBench, a plain timing loop rather than JMH; its doc says how far the numbers can be trusted.
+ * There is no JMH version: the project is built from its source folders with javac alone, with no Maven or Gradle build
+ * to pull in JMH and its annotation processor, so the benchmarks are kept to what the JDK can run.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class GameBenchmarks {
+
+	/**
+	 * Fills the seats of a game.
+	 */
+	interface Lineup {
+		void seat(Game g, int players);
+	}
+
+	static final double[] initialparam = {16.514,0.3537,0.3274,0.2776,38.449,67.295,79.52};
+
+	/**
+	 * A benchmark playing whole games with the given lineup.
+	 */
+	static class Play extends TimedBench {
+		private final int players;
+		private final Lineup lineup;
+		private long game = 0;
+
+		Play(String mix, int players, Lineup lineup){
+			super("play."+mix+"."+players);
+			this.players = players;
+			this.lineup = lineup;
+		}
+
+		protected long op(){
+			Game g = new Game(game++);
+			lineup.seat(g, players);
+			g.setup();
+			return g.play() ? 1 : 0;
+		}
+	}
+
+	static final Lineup random = new Lineup(){
+		public void seat(Game g, int players){
+			for(int i = 0; i < players; i++) g.addPlayer(new RandomAgent(g.getSeatSeed(i)));
+		}
+	};
+
+	static final Lineup pingu = new Lineup(){
+		public void seat(Game g, int players){
+			for(int i = 0; i < players; i++) g.addPlayer(new PinguBot(g.getSeatSeed(i)));
+		}
+	};
+
+	static final Lineup potatoVsPingu = new Lineup(){
+		public void seat(Game g, int players){
+			for(int i = 0; i < players; i++){
+				if(i%2 == 0) g.addPlayer(new PotatoBot(PotatoBot.GENOME, g.getSeatSeed(i)));
+				else g.addPlayer(new PinguBot(g.getSeatSeed(i)));
+			}
+		}
+	};
+
+	/**
+	 * A population of genomes as in a generation of the genetic algorithm, half the seats of each game filled from it and half with PinguBots.
+	 */
+	static Lineup population(){
+		final Genome[] genomes = new Genome[200];
+		Random r = new Random(0);
+		for(int i = 0; i < genomes.length; i++){
+			double[] th = new double[Genome.SIZE];
+			for(int j = 0; j < th.length; j++) th[j] = initialparam[j]*(0.8 + 0.4*r.nextDouble());
+			genomes[i] = new Genome(i, th);
+		}
+		return new Lineup(){
+			public void seat(Game g, int players){
+				Random r = new Random(g.getSeed());
+				int experts = players/2;
+				for(int i = 0; i < experts; i++) g.addPlayer(new PinguBot(g.getSeatSeed(i)));
+				for(int i = experts; i < players; i++) g.addPlayer(genomes[r.nextInt(genomes.length)].newAgent(g.getSeatSeed(i)));
+			}
+		};
+	}
+
+	/**
+	 * Single vote of a resistance GAgent on a four player team.
+	 */
+	static class Vote extends TimedBench {
+		private GAgent agent;
+
+		Vote(){ super("gagent.do_Vote"); }
+
+		protected void setup(){
+			agent = new Genome(0, initialparam).newAgent(1);
+			agent.get_status(0, 7, 0, 1, 0);
+			agent.get_ProposedMission(1, 0x1e);
+		}
+
+		protected long op(){
+			return agent.do_Vote() ? 1 : 0;
+		}
+	}
+
+	/**
+	 * Suspicion update of a GAgent after a mission, alternating failed and successful missions.
+	 */
+	static class Traitors extends TimedBench {
+		private GAgent agent;
+		private int traitors = 0;
+
+		Traitors(){ super("gagent.get_Traitors"); }
+
+		protected void setup(){
+			agent = new Genome(0, initialparam).newAgent(1);
+			agent.get_status(0, 7, 0, 1, 0);
+			agent.get_Votes(0x5b);
+			agent.get_Mission(0x1e);
+		}
+
+		protected long op(){
+			traitors ^= 1;
+			agent.get_Traitors(traitors);
+			return traitors;
+		}
+	}
+
+	/**
+	 * A nomination by a random leader of a set up game of PinguBots, including reporting it to every player.
+	 */
+	static class Nominate extends TimedBench {
+		private Game game;
+
+		Nominate(){ super("game.nominate"); }
+
+		protected void setup(){
+			game = new Game(1);
+			pingu.seat(game, 7);
+			game.setup();
+		}
+
+		protected long op(){
+			return game.nominate(2);
+		}
+	}
+
+	static List<TimedBench> all(){
+		List<TimedBench> benchmarks = new ArrayList<TimedBench>();
+		Lineup gagents = population();
+		for(int players = 5; players <= 10; players++){
+			benchmarks.add(new Play("random", players, random));
+			benchmarks.add(new Play("pingu", players, pingu));
+			benchmarks.add(new Play("potato-pingu", players, potatoVsPingu));
+			benchmarks.add(new Play("gagent", players, gagents));
+		}
+		benchmarks.add(new Vote());
+		benchmarks.add(new Traitors());
+		benchmarks.add(new Nominate());
+		return benchmarks;
+	}
+
+	public static void main(String[] args){
+		int warmups = Integer.getInteger("bench.warmups", 3);
+		int iterations = Integer.getInteger("bench.iterations", 5);
+		long millis = Long.getLong("bench.millis", 1000L);
+		for(TimedBench b : all()){
+			boolean selected = args.length == 0;
+			for(String a : args) if(b.getName().startsWith(a)) selected = true;
+			if(selected) b.run(warmups, iterations, millis);
+		}
+	}
+}
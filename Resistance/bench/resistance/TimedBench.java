@@ -0,0 +1,114 @@
+package resistance;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * A hand-rolled timing loop for benchmarks, needing nothing but the JDK. It is not JMH and gives none of JMH's guarantees.
+ *
+ * A benchmark is run for a number of warmup iterations, whose results are thrown away, and then for a number of measured iterations.
+ * Each iteration repeats the operation for a fixed time and reports operations per second, and the bytes allocated per operation
+ * where the JVM can count a thread's allocations (HotSpot can).
+ *
+ * How far the numbers can be trusted:
+ * <ul>
+ * <li>Every benchmark runs in the same JVM, one after another, with no forks. The JIT's profile of shared code such as Game.play
+ * is shaped by the benchmarks run before, so a benchmark can score differently alone and in the full suite.</li>
+ * <li>The only guard against dead code elimination is the sum of op's results kept in a volatile field. An op whose work
+ * does not feed its result can be optimised away and report an impossible rate.</li>
+ * <li>The clock is read every 64 operations, so operations of a few nanoseconds include some of the loop and clock overhead.</li>
+ * <li>The error is the standard deviation of the measured iterations, not a confidence interval, and a handful of iterations
+ * says little about noise from other processes, frequency scaling or garbage collection.</li>
+ * <li>Allocation comes from the thread's allocation counter, which is exact on HotSpot but misses work on other threads.</li>
+ * </ul>
+ * The numbers are good for comparing two versions of the code run the same way on the same machine, where differences of
+ * a few percent should be treated as noise. For anything finer, port the benchmark to JMH.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public abstract class TimedBench {
+
+	static volatile long sink; //results are added here so the JIT cannot remove the work that made them
+
+	private final String name;
+
+	/**
+	 * @param name the name the benchmark is reported under
+	 */
+	protected TimedBench(String name){
+		this.name = name;
+	}
+
+	public String getName(){
+		return name;
+	}
+
+	/**
+	 * Prepares the state of the benchmark. Called once before the warmup.
+	 */
+	protected void setup(){}
+
+	/**
+	 * Performs the operation being measured once.
+	 * @return any value depending on the work done, which is kept so the work is not optimised away
+	 */
+	protected abstract long op();
+
+	/**
+	 * Runs the benchmark and prints a line of results.
+	 * @param warmups the number of warmup iterations
+	 * @param iterations the number of measured iterations
+	 * @param millis the length of each iteration, in milliseconds
+	 */
+	public void run(int warmups, int iterations, long millis){
+		setup();
+		for(int i = 0; i < warmups; i++) iteration(millis);
+		double[] rates = new double[iterations];
+		double bytes = 0;
+		for(int i = 0; i < iterations; i++){
+			double[] r = iteration(millis);
+			rates[i] = r[0];
+			bytes += r[1];
+		}
+		double mean = 0;
+		for(double r : rates) mean += r;
+		mean /= iterations;
+		double var = 0;
+		for(double r : rates) var += (r-mean)*(r-mean);
+		double err = iterations > 1 ? Math.sqrt(var/(iterations-1)) : 0;
+		System.out.println(String.format("%-40s %14.1f +- %10.1f ops/s %12s B/op", name, mean, err,
+				bytes < 0 ? "n/a" : String.format("%.1f", bytes/iterations)));
+	}
+
+	/**
+	 * Repeats the operation for the given time.
+	 * @return the operations per second, and the bytes allocated per operation (negative if not known)
+	 */
+	private double[] iteration(long millis){
+		long allocated = allocatedBytes();
+		long ops = 0;
+		long acc = 0;
+		long start = System.nanoTime();
+		long end = start + millis*1000000;
+		long now;
+		do{
+			for(int i = 0; i < 64; i++) acc += op();
+			ops += 64;
+		}while((now = System.nanoTime()) < end);
+		sink += acc;
+		long after = allocatedBytes();
+		double bytes = allocated < 0 ? -1 : (double)(after-allocated)/ops;
+		return new double[]{ops*1e9/(now-start), bytes};
+	}
+
+	/**
+	 * @return the bytes allocated by this thread so far, or -1 if the JVM does not count them
+	 */
+	private static long allocatedBytes(){
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if(bean instanceof com.sun.management.ThreadMXBean){
+			return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,107 @@
+package resistance;
+
+import java.util.*;
+
+/**
+ * Checks that a BatchGame ends every game exactly as a Game played from the same seeds, with the scalar kernels and with
+ * the kernels BatchKernels.load finds, which are the Vector API kernels when they are compiled in and the module is added:
+ * <pre>
+ *  java -cp bin resistance.BatchGameCheck
+ *  java --add-modules jdk.incubator.vector -cp bin resistance.BatchGameCheck
+ * </pre>
+ * Each trial draws a number of players, a kind of agent for every seat and thresholds for every threshold agent of every
+ * game, and compares the spies and the winner of each game. Half the trials give the spies, as scenarios do.
+ * Exits with status 1 if any game differs.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class BatchGameCheck {
+
+	private static final int TRIALS = 200;
+	private static final int GAMES = 67; //games a trial, not a multiple of any vector length so the kernels' tails are played too
+
+	/**
+	 * Plays the trials with one set of kernels.
+	 * @param kernels the kernels
+	 * @param seed the seed of the trials
+	 * @return the number of games that differ from their Game
+	 */
+	static int check(BatchKernels kernels, long seed){
+		Random r = new Random(seed);
+		BatchGame.Kind[] kinds = BatchGame.Kind.values();
+		int mismatches = 0;
+		for(int trial = 0; trial < TRIALS; trial++){
+			int players = 5 + r.nextInt(6);
+			boolean givenspies = trial%2 == 1;
+			BatchGame batch = new BatchGame(GAMES);
+			batch.setKernels(kernels);
+			batch.setPlayers(players);
+			BatchGame.Kind[] seats = new BatchGame.Kind[players];
+			for(int seat = 0; seat < players; seat++){
+				seats[seat] = kinds[r.nextInt(kinds.length)];
+				batch.setSeat(seat, seats[seat]);
+			}
+			long[] seeds = new long[GAMES];
+			int[] spies = new int[GAMES];
+			Genome[][] genomes = new Genome[GAMES][players];
+			for(int g = 0; g < GAMES; g++){
+				seeds[g] = r.nextLong();
+				if(givenspies){
+					spies[g] = spies(players, r);
+					batch.setGame(g, seeds[g], spies[g]);
+				}
+				else batch.setGame(g, seeds[g]);
+				for(int seat = 0; seat < players; seat++){
+					double[] th = new double[Genome.SIZE];
+					for(int j = 0; j < th.length; j++) th[j] = PotatoBot.GENOME.get(j)*(0.5 + r.nextDouble());
+					genomes[g][seat] = new Genome(seat, th);
+					batch.setThresholds(g, seat, genomes[g][seat].thresholds());
+				}
+			}
+			batch.play(GAMES);
+			for(int g = 0; g < GAMES; g++){
+				Game game = new Game(seeds[g]);
+				for(int seat = 0; seat < players; seat++) game.addPlayer(agent(seats[seat], genomes[g][seat], game.getSeatSeed(seat)));
+				if(givenspies) game.setup(spies[g]);
+				else game.setup();
+				boolean resistancewin = game.play();
+				int gamespies = 0;
+				for(int seat = 0; seat < players; seat++) if(game.isSpy(seat)) gamespies |= 1<<seat;
+				if(resistancewin != batch.getResistanceWin(g) || gamespies != batch.getSpies(g)) mismatches++;
+			}
+		}
+		return mismatches;
+	}
+
+	/**
+	 * @return the agent of a seat of a Game, as the batch plays the seat's kind
+	 */
+	private static FastAgent agent(BatchGame.Kind kind, Genome genome, long seed){
+		switch(kind){
+			case RANDOM: return new AgentAdapter(new RandomAgent(seed));
+			case PINGU: return new AgentAdapter(new PinguBot(seed));
+			case GENETIC: return genome.newAgent(seed).fast();
+			default: return new PotatoBot(genome, seed).fast();
+		}
+	}
+
+	/**
+	 * @return a random set of as many spies as the rules give a game of the given size
+	 */
+	private static int spies(int players, Random r){
+		int spies = 0;
+		while(Integer.bitCount(spies) < Game.spies(players)) spies |= 1<<r.nextInt(players);
+		return spies;
+	}
+
+	public static void main(String[] args){
+		BatchKernels[] kernels = {new BatchKernels.Scalar(), BatchKernels.load()};
+		boolean failed = false;
+		for(BatchKernels k : kernels){
+			int mismatches = check(k, 5);
+			System.out.println(k.getClass().getSimpleName() + ": " + mismatches + " of " + TRIALS*GAMES + " games differ from Game");
+			if(mismatches != 0) failed = true;
+		}
+		if(failed) System.exit(1);
+	}
+}
@@ -0,0 +1,97 @@
+package resistance;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Checks that a seeded run of the genetic algorithm ends the same however it is played: on one thread or several,
+ * one Game at a time or in batches, and straight through or stopped at a checkpoint and resumed.
+ * <pre>
+ *  java -cp bin resistance.GeneticAlgCheck
+ * </pre>
+ * Each way of evaluating a generation (random games, balanced schedules, scenarios, racing, and random games screened
+ * by a fitness cache and surrogate model) is run once on one thread without batches as the reference. It is then run on three threads, in batches, and resumed from a checkpoint
+ * written part way through with other threads and batches. The final population, the best agent and the number of
+ * games played must all equal the reference. Exits with status 1 if any run differs.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class GeneticAlgCheck {
+
+	private static final double[] INITIAL = {20,0.4,0.3,0.3,35,50,70};
+	private static final int GENERATIONS = 1001; //generations 0, 500 and 1000 are played
+	private static final int STOP = 600; //the generation the resumed runs stop at
+	private static final String[] MODES = {"random", "balanced", "scenarios", "racing", "screened"};
+
+	/**
+	 * @return a new run evaluated in the given mode
+	 */
+	static GeneticAlg run(String mode){
+		GeneticAlg alg = new GeneticAlg(GENERATIONS, 600, 200, INITIAL, 0.3, 0.1, 7L);
+		if(mode.equals("balanced")) alg.setBalanced(true);
+		else if(mode.equals("scenarios")) alg.setScenarios(4);
+		else if(mode.equals("racing")) alg.setRacing(4, 0.9);
+		else if(mode.equals("screened")){
+			alg.setFitnessCache(new FitnessCache(300, 2));
+			alg.setSurrogate(new Surrogate(400, Genome.SCHEMA.size(), 8), 3);
+		}
+		return alg;
+	}
+
+	/**
+	 * @return true if two finished runs are the same
+	 */
+	static boolean same(GeneticAlg a, double[] resulta, GeneticAlg b, double[] resultb){
+		if(!Arrays.equals(resulta, resultb) || a.gamesplayed != b.gamesplayed || a.bestwinloss != b.bestwinloss) return false;
+		for(int i = 0; i < a.numberofagents; i++){
+			if(!Arrays.equals(a.population.get(i), b.population.get(i))) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Runs one mode every way and compares each with the reference.
+	 * @return the number of runs that differ from the reference
+	 */
+	static int check(String mode, File checkpoint) throws IOException{
+		GeneticAlg reference = run(mode);
+		double[] expected = reference.doGeneticAlg();
+		int failures = 0;
+		int[][] settings = {{3, 0}, {1, 64}, {3, 1024}}; //threads and batch size
+		for(int[] s : settings){
+			GeneticAlg alg = run(mode);
+			alg.setParallelism(s[0]);
+			alg.setBatch(s[1]);
+			if(!same(reference, expected, alg, alg.doGeneticAlg())){
+				failures++;
+				System.out.println(mode + " on " + s[0] + " threads with batch size " + s[1] + " differs");
+			}
+			alg.setParallelism(1);
+		}
+		//stops part way with a checkpoint, then resumes with other settings
+		GeneticAlg first = run(mode);
+		first.numbgens = STOP;
+		first.setCheckpoint(checkpoint.getPath(), STOP);
+		first.doGeneticAlg();
+		GeneticAlg resumed = GeneticAlg.resume(checkpoint.getPath());
+		resumed.numbgens = GENERATIONS;
+		resumed.setParallelism(2);
+		resumed.setBatch(256);
+		if(!same(reference, expected, resumed, resumed.doGeneticAlg())){
+			failures++;
+			System.out.println(mode + " resumed from generation " + STOP + " differs");
+		}
+		resumed.setParallelism(1);
+		return failures;
+	}
+
+	public static void main(String[] args) throws IOException{
+		File checkpoint = File.createTempFile("GeneticAlgCheck", ".checkpoint");
+		int failures = 0;
+		try{
+			for(String mode : MODES) failures += check(mode, checkpoint);
+		}finally{checkpoint.delete();}
+		System.out.println(failures + " of " + MODES.length*4 + " runs differ from their reference");
+		if(failures != 0) System.exit(1);
+	}
+}
@@ -0,0 +1,92 @@
+package resistance;
+
+import java.util.*;
+
+/**
+ * Checks the partial sorts behind the selection strategies against a full sort of the agents:
+ * <pre>
+ *  java -cp bin resistance.SelectionCheck
+ * </pre>
+ * The fitnesses are drawn from few values, with some NaN, so ties and agents that played no games are common.
+ * The full sort orders the agents by its own comparator, as the Selection doc describes the order, rather than
+ * by Selection.better. Truncation must give the first k agents of the full sort, Selection.sort the whole of it,
+ * and Elitist its first elites. Exits with status 1 if any differ.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class SelectionCheck {
+
+	private static final int TRIALS = 500;
+
+	/**
+	 * Orders agents by fitness, higher first, a NaN below every number and a tie to the lower index.
+	 */
+	private static class ByFitness implements Comparator<Integer> {
+		private final double[] fitness;
+
+		ByFitness(double[] fitness){
+			this.fitness = fitness;
+		}
+
+		public int compare(Integer a, Integer b){
+			double fa = fitness[a], fb = fitness[b];
+			boolean nana = Double.isNaN(fa), nanb = Double.isNaN(fb);
+			if(nana != nanb) return nana ? 1 : -1;
+			if(!nana && fa != fb) return fa > fb ? -1 : 1;
+			return a.compareTo(b);
+		}
+	}
+
+	/**
+	 * @return the agents in the order of a full sort
+	 */
+	static int[] fullSort(double[] fitness, int n){
+		Integer[] order = new Integer[n];
+		for(int i = 0; i < n; i++) order[i] = i;
+		Arrays.sort(order, new ByFitness(fitness));
+		int[] sorted = new int[n];
+		for(int i = 0; i < n; i++) sorted[i] = order[i];
+		return sorted;
+	}
+
+	/**
+	 * @return the number of trials in which a strategy differs from the full sort
+	 */
+	static int check(long seed){
+		Random r = new Random(seed);
+		Selection.Truncation truncation = new Selection.Truncation();
+		int failures = 0;
+		for(int trial = 0; trial < TRIALS; trial++){
+			int n = 1 + r.nextInt(trial%10 == 0 ? 5000 : 300);
+			int k = 1 + r.nextInt(n);
+			double[] fitness = new double[n];
+			for(int i = 0; i < n; i++) fitness[i] = r.nextInt(10) == 0 ? Double.NaN : r.nextInt(40)/40.0;
+			int[] expected = fullSort(fitness, n);
+
+			int[] survivors = new int[k];
+			truncation.select(fitness, n, k, r, survivors);
+			boolean ok = Arrays.equals(survivors, Arrays.copyOf(expected, k));
+
+			int[] index = new int[n];
+			for(int i = 0; i < n; i++) index[i] = i;
+			Selection.sort(index, 0, n, fitness);
+			ok &= Arrays.equals(index, expected);
+
+			int elites = 1 + r.nextInt(k);
+			new Selection.Elitist(elites, new Selection.Tournament(2)).select(fitness, n, k, r, survivors);
+			ok &= Arrays.equals(Arrays.copyOf(survivors, elites), Arrays.copyOf(expected, elites));
+
+			if(!ok){
+				failures++;
+				System.out.println("Trial " + trial + " (" + n + " agents, " + k + " survivors) differs from the full sort");
+			}
+		}
+		return failures;
+	}
+
+	public static void main(String[] args){
+		int failures = check(5);
+		System.out.println(failures + " of " + TRIALS + " trials differ from a full sort");
+		if(failures != 0) System.exit(1);
+	}
+}
@@ -0,0 +1,77 @@
+package resistance;
+
+/**
+ * Plays an Agent in a game of FastAgents, by converting seats and bitmasks to and from the Strings the Agent expects.
+ * The Strings given to the Agent are the same as a Game of Agents would give it.
+ * 
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class AgentAdapter implements FastAgent{
+
+	private final Agent agent;
+	private int players; //the number of players in the game
+	private String name;
+	private String playerString;
+	private String spyString;
+
+	/**
+	 * @param agent the agent to play
+	 */
+	public AgentAdapter(Agent agent){
+		this.agent = agent;
+	}
+
+	/**
+	 * @return the agent being played
+	 */
+	public Agent getAgent(){
+		return agent;
+	}
+
+	public void get_status(int name, int players, int spies, int mission, int failures){
+		if(this.name == null){
+			this.players = players;
+			this.name = Seats.name(name);
+			playerString = Seats.names((1<<players)-1);
+			spyString = spies != 0 ? Seats.names(spies) : Seats.unknown(Game.spies(players));
+		}
+		agent.get_status(this.name, playerString, spyString, mission, failures);
+	}
+
+	public int do_Nominate(int number){
+		return Seats.mask(agent.do_Nominate(number), players);
+	}
+
+	public void get_ProposedMission(int leader, int mission){
+		agent.get_ProposedMission(Seats.name(leader), Seats.names(mission));
+	}
+
+	public boolean do_Vote(){
+		return agent.do_Vote();
+	}
+
+	public void get_Votes(int yays){
+		agent.get_Votes(Seats.names(yays));
+	}
+
+	public void get_Mission(int mission){
+		agent.get_Mission(Seats.names(mission));
+	}
+
+	public boolean do_Betray(){
+		return agent.do_Betray();
+	}
+
+	public void get_Traitors(int traitors){
+		agent.get_Traitors(traitors);
+	}
+
+	public int do_Accuse(){
+		int mask = Seats.mask(agent.do_Accuse(), players);
+		return mask == -1 ? 0 : mask;
+	}
+
+	public void get_Accusation(int accuser, int accused){
+		agent.get_Accusation(Seats.name(accuser), Seats.names(accused));
+	}
+}
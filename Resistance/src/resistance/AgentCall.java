@@ -0,0 +1,41 @@
+package resistance;
+
+/**
+ * The methods a game calls on its agents, with the time limit each must return within.
+ * 
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public enum AgentCall {
+	GET_STATUS("get_status", 100),
+	DO_NOMINATE("do_Nominate", 1000),
+	GET_PROPOSED_MISSION("get_ProposedMission", 100),
+	DO_VOTE("do_Vote", 1000),
+	GET_VOTES("get_Votes", 100),
+	GET_MISSION("get_Mission", 100),
+	DO_BETRAY("do_Betray", 1000),
+	GET_TRAITORS("get_Traitors", 100),
+	DO_ACCUSE("do_Accuse", 1000),
+	GET_ACCUSATION("get_Accusation", 100);
+
+	private final String method;
+	private final long limit;
+
+	private AgentCall(String method, long limit){
+		this.method = method;
+		this.limit = limit;
+	}
+
+	/**
+	 * @return the name of the method, as in Agent
+	 */
+	public String getMethod(){
+		return method;
+	}
+
+	/**
+	 * @return the time limit of the method, in milliseconds
+	 */
+	public long getLimit(){
+		return limit;
+	}
+}
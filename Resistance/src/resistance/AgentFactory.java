@@ -0,0 +1,43 @@
+package resistance;
+
+/**
+ * Makes the agent that sits in a seat of a tournament game. A new agent is made for every game.
+ * 
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public interface AgentFactory {
+
+	/**
+	 * Creates an agent for one game.
+	 * @param seed the seed for the agent's random numbers
+	 * @return the agent
+	 */
+	public FastAgent create(long seed);
+
+	public static final AgentFactory RANDOM = new AgentFactory(){
+		public FastAgent create(long seed){ return new AgentAdapter(new RandomAgent(seed)); }
+	};
+
+	public static final AgentFactory PINGU = new AgentFactory(){
+		public FastAgent create(long seed){ return new AgentAdapter(new PinguBot(seed)); }
+	};
+
+	public static final AgentFactory POTATO = new AgentFactory(){
+		public FastAgent create(long seed){ return new PotatoBot(PotatoBot.GENOME, seed).fast(); }
+	};
+
+	/**
+	 * A factory of GAgents playing a genome.
+	 */
+	public static class Genetic implements AgentFactory {
+		private final Genome genome;
+
+		public Genetic(Genome genome){
+			this.genome = genome;
+		}
+
+		public FastAgent create(long seed){
+			return genome.newAgent(seed).fast();
+		}
+	}
+}
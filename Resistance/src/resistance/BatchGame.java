@@ -0,0 +1,488 @@
+package resistance;
+
+import java.util.Arrays;
+
+/**
+ * Plays a batch of games at once, in lockstep: every game of the batch nominates, votes and goes on its missions
+ * in the same phase, seat by seat, with the state of every game held in primitive arrays instead of in agent objects.
+ *
+ * The games of a batch share a lineup, the number of players and the kind of agent in each seat (see Kind), though the
+ * thresholds of the threshold agents may differ from game to game. Each agent is played by the rules of its class, and
+ * the random numbers of the game and of each seat come from the same seeds, with the same generator, as a Game played from
+ * the game's seed with each agent seeded from Game.getSeatSeed, so every game of a batch ends exactly as that Game would.
+ * Timings, deadlines, logs and records are not supported; play such games with Game.
+ *
+ * Arrays of per game state are indexed [field*capacity + game], so the games of a batch are contiguous for each field,
+ * and the arithmetic of the threshold agents is done a column at a time by BatchKernels, on the Vector API where it is present.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class BatchGame {
+
+	/**
+	 * The agents a seat of a batch may hold.
+	 */
+	public enum Kind {
+		/** A RandomAgent. */
+		RANDOM,
+		/** A PinguBot. */
+		PINGU,
+		/** A GAgent, playing the thresholds set for its seat in each game. */
+		GENETIC,
+		/** A PotatoBot, playing the thresholds set for its seat in each game. */
+		POTATO
+	}
+
+	//the linear congruential generator of java.util.Random
+	private static final long MULTIPLIER = 0x5DEECE66DL;
+	private static final long ADDEND = 0xBL;
+	private static final long MASK = (1L << 48) - 1;
+
+	private final int capacity; //the most games in a batch
+	private int players; //the number of players in every game of the batch
+	private final Kind[] kinds = new Kind[10]; //kinds[i] is the kind of agent in seat i
+
+	private final long[] seeds; //seeds[g] is the seed of game g
+	private final long[] rng; //rng[stream*capacity + g] is the generator state of a stream of game g: 0 for the game, seat+1 for a seat
+	private final int[] spies; //the bitmask of the spies of each game, 0 until they are drawn
+	private final int[] fails; //the number of missions failed in each game
+	private final int[] team; //the last team proposed in each game, and then the team sent on its mission
+	private final int[] votes; //the bitmask of the players who voted yes in the last vote of each game
+	private final int[] leader; //the leader of the last team proposed in each game
+	private final int[] traitors; //the number of traitors on the mission of each game
+	private final int[] defspy; //defspy[seat*capacity + g] is the bitmask of players a PinguBot will not trust
+	private final double[] thresholds; //thresholds[(seat*Genome.SIZE + j)*capacity + g] is threshold j of a seat
+	private final double[] suspicion; //suspicion[(seat*10 + player)*capacity + g] is a seat's suspicion of a player
+	private final int[] pending; //the games still voting on a team this round
+	private final double[] teamsize; //the number of players on the team of each game
+
+	private static final BatchKernels KERNELS = BatchKernels.load();
+	private BatchKernels kernels = KERNELS;
+	//the working columns of the kernels
+	private final double[] ones, total, value, spyvalue, draw, amount, amount2;
+	private final int[] masks, masks2;
+	private final boolean[] below, above;
+
+	/**
+	 * @param capacity the most games played in one batch
+	 */
+	public BatchGame(int capacity){
+		if(capacity < 1) throw new IllegalArgumentException("Capacity must be at least 1");
+		this.capacity = capacity;
+		seeds = new long[capacity];
+		rng = new long[11*capacity];
+		spies = new int[capacity];
+		fails = new int[capacity];
+		team = new int[capacity];
+		votes = new int[capacity];
+		leader = new int[capacity];
+		traitors = new int[capacity];
+		defspy = new int[10*capacity];
+		thresholds = new double[10*Genome.SIZE*capacity];
+		suspicion = new double[100*capacity];
+		pending = new int[capacity];
+		teamsize = new double[capacity];
+		ones = new double[capacity];
+		Arrays.fill(ones, 1);
+		total = new double[capacity];
+		value = new double[capacity];
+		spyvalue = new double[capacity];
+		draw = new double[capacity];
+		amount = new double[capacity];
+		amount2 = new double[capacity];
+		masks = new int[capacity];
+		masks2 = new int[capacity];
+		below = new boolean[capacity];
+		above = new boolean[capacity];
+	}
+
+	/**
+	 * @param kernels the kernels the threshold agents' arithmetic is done with, by default those of BatchKernels.load
+	 */
+	public void setKernels(BatchKernels kernels){
+		this.kernels = kernels;
+	}
+
+	/**
+	 * @return the most games played in one batch
+	 */
+	public int getCapacity(){
+		return capacity;
+	}
+
+	/**
+	 * Starts a new lineup, with every seat empty.
+	 * @param players the number of players in every game, 5 to 10
+	 */
+	public void setPlayers(int players){
+		if(players < 5 || players > 10) throw new IllegalArgumentException("Games have 5 to 10 players");
+		this.players = players;
+		Arrays.fill(kinds, null);
+	}
+
+	/**
+	 * @return the number of players in every game
+	 */
+	public int getPlayers(){
+		return players;
+	}
+
+	/**
+	 * @param seat the seat, from 0
+	 * @param kind the kind of agent in the seat in every game
+	 */
+	public void setSeat(int seat, Kind kind){
+		if(seat < 0 || seat >= players) throw new IllegalArgumentException("No seat "+seat);
+		kinds[seat] = kind;
+	}
+
+	/**
+	 * Sets the thresholds played by the agent in a seat of one game, for GENETIC and POTATO seats.
+	 * @param game the game, from 0
+	 * @param seat the seat
+	 * @param th the thresholds, as held by a Genome (see Genome.thresholds); the batch plays the GAgent's rules, so no other genes
+	 */
+	public void setThresholds(int game, int seat, double[] th){
+		if(th.length != Genome.SIZE) throw new IllegalArgumentException("A GAgent has "+Genome.SIZE+" thresholds, not "+th.length);
+		for(int j = 0; j < Genome.SIZE; j++) thresholds[(seat*Genome.SIZE + j)*capacity + game] = th[j];
+	}
+
+	/**
+	 * Sets the seed of a game, whose spies are drawn from it as in Game.setup().
+	 * @param game the game, from 0
+	 * @param seed the seed of the game
+	 */
+	public void setGame(int game, long seed){
+		seeds[game] = seed;
+		spies[game] = 0;
+	}
+
+	/**
+	 * Sets the seed and the spies of a game, as in Game.setup(spies).
+	 * @param game the game, from 0
+	 * @param seed the seed of the game
+	 * @param spies the spies, a bitmask of seats with as many seats set as the rules give spies
+	 */
+	public void setGame(int game, long seed, int spies){
+		if(spies >>> players != 0 || Integer.bitCount(spies) != Game.spies(players)) throw new IllegalArgumentException("Invalid spies");
+		seeds[game] = seed;
+		this.spies[game] = spies;
+	}
+
+	/**
+	 * @param game the game, from 0
+	 * @return the bitmask of the spies of the game
+	 */
+	public int getSpies(int game){
+		return spies[game];
+	}
+
+	/**
+	 * @param game the game, from 0
+	 * @param seat the seat
+	 * @return true if the player in the seat was a spy
+	 */
+	public boolean isSpy(int game, int seat){
+		return (spies[game] & 1<<seat) != 0;
+	}
+
+	/**
+	 * @param game the game, from 0
+	 * @return true if the resistance won the game
+	 */
+	public boolean getResistanceWin(int game){
+		return fails[game] <= 2;
+	}
+
+	/**
+	 * Plays games 0 to count-1, whose seeds have been set, to the end.
+	 * @param count the number of games
+	 */
+	public void play(int count){
+		if(count < 0 || count > capacity) throw new IllegalArgumentException("Batch holds at most "+capacity+" games");
+		for(int seat = 0; seat < players; seat++){
+			if(kinds[seat] == null) throw new IllegalStateException("Seat "+seat+" is empty");
+		}
+		setup(count);
+		for(int round = 1; round <= 5; round++){
+			int number = Game.missionSize(players, round);
+			int voting = count;
+			for(int g = 0; g < count; g++) pending[g] = g;
+			nominate(voting, number);
+			//a game leaves the vote once a team is elected; after a fifth failed vote the last team nominated goes unvoted
+			for(int attempt = 1; attempt <= 5 && voting > 0; attempt++){
+				vote(voting, attempt, round);
+				int failed = 0;
+				for(int i = 0; i < voting; i++){
+					int g = pending[i];
+					if(Integer.bitCount(votes[g]) <= players/2) pending[failed++] = g;
+				}
+				voting = failed;
+				nominate(voting, number);
+			}
+			mission(count, round);
+		}
+	}
+
+	/**
+	 * Seeds every stream and draws the spies of the games not given them.
+	 */
+	private void setup(int count){
+		for(int g = 0; g < count; g++){
+			rng[g] = scramble(Seeds.derive(seeds[g], 0));
+			for(int seat = 0; seat < players; seat++) rng[(seat+1)*capacity + g] = scramble(Seeds.derive(seeds[g], seat+1));
+			if(spies[g] == 0){
+				int mask = 0;
+				for(int i = 0; i < Game.spies(players); i++){
+					int spy = nextInt(g, players);
+					while((mask & 1<<spy) != 0) spy = nextInt(g, players);
+					mask |= 1<<spy;
+				}
+				spies[g] = mask;
+			}
+			fails[g] = 0;
+		}
+		//only the columns of the games played are cleared, so a large batch holding few games does not clear all of its rows
+		for(int row = 0; row < 100; row++) Arrays.fill(suspicion, row*capacity, row*capacity + count, 0);
+		for(int row = 0; row < 10; row++) Arrays.fill(defspy, row*capacity, row*capacity + count, 0);
+	}
+
+	/**
+	 * Draws a leader for each pending game and has them nominate a team, replaced by the first seats if it is not legitimate.
+	 */
+	private void nominate(int voting, int number){
+		for(int i = 0; i < voting; i++){
+			int g = pending[i];
+			int l = nextInt(g, players);
+			int s = (l+1)*capacity + g; //the leader's stream
+			int mask;
+			switch(kinds[l]){
+			case RANDOM: mask = nominateRandom(s, 0, number, 0); break;
+			case PINGU: mask = nominatePingu(g, l, s, number); break;
+			case GENETIC:
+				//a resistance GAgent nominates one player too few, so its team is always replaced by the first seats
+				mask = isSpy(g, l) ? nominateRandom(s, 0, number, 0) : 0;
+				break;
+			default: mask = nominatePotato(g, l, s, number); break;
+			}
+			if(mask < 0 || mask >= 1<<players || Integer.bitCount(mask) != number) mask = (1<<number)-1;
+			leader[g] = l;
+			team[g] = mask;
+			teamsize[g] = number;
+		}
+	}
+
+	/**
+	 * Adds players drawn at random to a team until it has number players, never drawing the excluded players.
+	 */
+	private int nominateRandom(int s, int team, int number, int excluded){
+		for(int i = Integer.bitCount(team); i < number; i++){
+			int c = nextInt(s, players);
+			while(((team | excluded) & 1<<c) != 0) c = nextInt(s, players);
+			team |= 1<<c;
+		}
+		return team;
+	}
+
+	private int nominatePingu(int g, int l, int s, int number){
+		if(isSpy(g, l)) return nominateRandom(s, 1<<l, number, spies[g]);
+		int distrust = defspy[l*capacity + g];
+		//a distrusted player is only excluded while too many are distrusted to fill the team without them
+		return nominateRandom(s, 1<<l, number, number >= Integer.bitCount(distrust) + players ? distrust : 0);
+	}
+
+	private int nominatePotato(int g, int l, int s, int number){
+		if(isSpy(g, l)) return nominateRandom(s, 1<<l, number, 0);
+		int mask = 1<<l;
+		int base = l*10*capacity + g;
+		for(int i = 1; i < number; i++){
+			double lowest = Integer.MAX_VALUE;
+			int ch = -1;
+			for(int j = 0; j < players; j++){
+				double sus = suspicion[base + j*capacity];
+				if(sus < lowest && (mask & 1<<j) == 0){
+					ch = j;
+					lowest = sus;
+				}
+			}
+			if(ch != -1) mask |= 1<<ch;
+		}
+		return mask;
+	}
+
+	/**
+	 * Polls every seat of the pending games on the team proposed and reports the votes.
+	 */
+	private void vote(int voting, int attempt, int round){
+		for(int i = 0; i < voting; i++) votes[pending[i]] = 0;
+		boolean forced = (attempt == 1 && round == 1) || attempt == 5; //the votes every PinguBot and PotatoBot approves
+		for(int seat = 0; seat < players; seat++){
+			int bit = 1<<seat;
+			int stream = (seat+1)*capacity;
+			switch(kinds[seat]){
+			case RANDOM:
+				for(int i = 0; i < voting; i++){
+					int g = pending[i];
+					if(nextInt(stream + g, 2) != 0) votes[g] |= bit;
+				}
+				break;
+			case PINGU:
+				for(int i = 0; i < voting; i++){
+					int g = pending[i];
+					int t = team[g];
+					boolean yes = true;
+					if(!forced && leader[g] != seat && (spies[g] & bit) == 0){
+						if(Integer.bitCount(t) == 3 && (t & bit) == 0) yes = false;
+						else if((t & defspy[seat*capacity + g]) != 0) yes = nextDouble(stream + g) + 0.0001 < 0.2;
+					}
+					if(yes) votes[g] |= bit;
+				}
+				break;
+			case GENETIC:
+				thresholdVotes(seat, voting, false, forced);
+				break;
+			default:
+				thresholdVotes(seat, voting, true, forced);
+				break;
+			}
+		}
+		if(attempt == 5){
+			//a resistance PinguBot distrusts everyone who approved a fifth vote
+			for(int seat = 0; seat < players; seat++){
+				if(kinds[seat] != Kind.PINGU) continue;
+				for(int i = 0; i < voting; i++){
+					int g = pending[i];
+					if((spies[g] & 1<<seat) == 0) defspy[seat*capacity + g] |= votes[g];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Polls a GAgent or PotatoBot seat of the pending games. A spy votes yes the more likely the more it is suspected,
+	 * a resistance player the less likely the more it suspects the team.
+	 */
+	private void thresholdVotes(int seat, int voting, boolean potato, boolean forced){
+		int bit = 1<<seat;
+		int stream = (seat+1)*capacity;
+		int own = seat*10*capacity; //the seat's suspicion table
+		int th = seat*Genome.SIZE*capacity; //the seat's thresholds
+		//the values are worked out for every game up to the last pending, though only those of the pending games are used
+		int span = pending[voting-1] + 1;
+		kernels.maskedSum(suspicion, own, capacity, players, team, span, total);
+		kernels.quotient(total, 0, teamsize, 0, thresholds, th + 5*capacity, span, value);
+		kernels.quotient(suspicion, own + seat*capacity, ones, 0, thresholds, th + 4*capacity, span, spyvalue);
+		for(int i = 0; i < voting; i++){
+			int g = pending[i];
+			//a spy PotatoBot approves any team with a spy on it without drawing
+			if(!potato || (spies[g] & bit) == 0 || (team[g] & spies[g]) == 0) draw[g] = nextDouble(stream + g);
+		}
+		kernels.decide(value, draw, false, span, below);
+		kernels.decide(spyvalue, draw, true, span, above);
+		for(int i = 0; i < voting; i++){
+			int g = pending[i];
+			boolean yes;
+			if((spies[g] & bit) != 0) yes = (potato && (team[g] & spies[g]) != 0) || above[g];
+			else yes = below[g];
+			if(yes || (potato && forced)) votes[g] |= bit;
+		}
+	}
+
+	/**
+	 * Sends every game's elected team on its mission, polls the spies on it and reports the traitors.
+	 */
+	private void mission(int count, int round){
+		Arrays.fill(traitors, 0, count, 0);
+		for(int seat = 0; seat < players; seat++){
+			int bit = 1<<seat;
+			int stream = (seat+1)*capacity;
+			int own = seat*10*capacity;
+			int th = seat*Genome.SIZE*capacity;
+			Kind kind = kinds[seat];
+			for(int g = 0; g < count; g++){
+				if((team[g] & spies[g] & bit) == 0) continue;
+				boolean betray;
+				if(kind == Kind.RANDOM) betray = nextInt(stream + g, 2) != 0;
+				else if(kind == Kind.PINGU){
+					int numbspies = Integer.bitCount(spies[g] & team[g]);
+					if(fails[g] == 2) betray = true;
+					else if(numbspies == Integer.bitCount(team[g])) betray = false;
+					else if(numbspies == 1) betray = 0.8 > nextDouble(stream + g);
+					else betray = nextInt(stream + g, 2) != 0;
+				}
+				else {
+					double value = (suspicion[own + seat*capacity + g] + fails[g] - (Integer.bitCount(team[g])/3))/thresholds[th + 6*capacity + g];
+					if(kind == Kind.POTATO && fails[g] == 2) betray = true;
+					else betray = value/(nextDouble(stream + g) + 0.00001) < 1;
+				}
+				if(betray) traitors[g]++;
+			}
+		}
+		for(int g = 0; g < count; g++){
+			int t = traitors[g];
+			if(t != 0 && (t != 1 || round != 4 || players < 7)) fails[g]++;
+		}
+		for(int seat = 0; seat < players; seat++){
+			if(kinds[seat] == Kind.GENETIC || kinds[seat] == Kind.POTATO) updateSuspicion(seat, count);
+		}
+	}
+
+	/**
+	 * Updates the suspicion table of a GAgent or PotatoBot after a mission, as its get_Traitors does.
+	 */
+	private void updateSuspicion(int seat, int count){
+		int own = seat*10*capacity;
+		int th = seat*Genome.SIZE*capacity;
+		int everyone = (1<<players) - 1;
+		for(int g = 0; g < count; g++){
+			double t0 = thresholds[th + g];
+			if(traitors[g] > 0){
+				//the team of a failed mission, then everyone who voted for it
+				masks[g] = team[g];
+				amount[g] = t0*thresholds[th + capacity + g]/teamsize[g];
+				masks2[g] = votes[g];
+				amount2[g] = t0*thresholds[th + 2*capacity + g];
+			}
+			else {
+				//everyone who voted against a successful mission
+				masks[g] = 0;
+				amount[g] = 0;
+				masks2[g] = ~votes[g] & everyone;
+				amount2[g] = t0*thresholds[th + 3*capacity + g];
+			}
+		}
+		kernels.maskedAdd(suspicion, own, capacity, players, masks, amount, count);
+		kernels.maskedAdd(suspicion, own, capacity, players, masks2, amount2, count);
+	}
+
+	private static long scramble(long seed){
+		return (seed ^ MULTIPLIER) & MASK;
+	}
+
+	/**
+	 * Advances a stream as java.util.Random.next does.
+	 */
+	private int next(int stream, int bits){
+		long s = (rng[stream]*MULTIPLIER + ADDEND) & MASK;
+		rng[stream] = s;
+		return (int) (s >>> (48 - bits));
+	}
+
+	/**
+	 * Draws from a stream as java.util.Random.nextInt(bound) does.
+	 */
+	private int nextInt(int stream, int bound){
+		int r = next(stream, 31);
+		int m = bound - 1;
+		if((bound & m) == 0) return (int) ((bound * (long) r) >> 31);
+		for(int u = r; u - (r = u % bound) + m < 0; u = next(stream, 31));
+		return r;
+	}
+
+	/**
+	 * Draws from a stream as java.util.Random.nextDouble does.
+	 */
+	private double nextDouble(int stream){
+		return (((long) next(stream, 26) << 27) + next(stream, 27)) * 0x1.0p-53;
+	}
+}
@@ -0,0 +1,115 @@
+package resistance;
+
+/**
+ * The arithmetic of the threshold agents' votes and suspicion updates in a BatchGame, over the games of a batch at once.
+ *
+ * Every kernel works on columns: a column is count consecutive doubles starting at an offset, one for each game of the batch,
+ * and a player's column in a table of players is the one at base + player*capacity. Every kernel gives exactly the result
+ * of the scalar loop it replaces, adding in the same order, so a batch plays the same games whichever kernels it uses.
+ *
+ * The Scalar kernels run anywhere. VectorKernels, in the vector source folder, uses the incubating Vector API of JDK 16
+ * and later to work on many games per instruction; it is compiled and run with --add-modules jdk.incubator.vector,
+ * and load picks it when it is present.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public interface BatchKernels {
+
+	/**
+	 * Sums each game's column of a table over the players in a bitmask, in player order.
+	 * @param table the table
+	 * @param base the offset of player 0's column
+	 * @param capacity the distance between the columns of consecutive players
+	 * @param players the number of players
+	 * @param masks masks[g] is the bitmask of the players summed for game g
+	 * @param count the number of games
+	 * @param sum the array the sums are written to
+	 */
+	public void maskedSum(double[] table, int base, int capacity, int players, int[] masks, int count, double[] sum);
+
+	/**
+	 * Adds an amount to each game's column of a table for the players in a bitmask.
+	 * @param table the table
+	 * @param base the offset of player 0's column
+	 * @param capacity the distance between the columns of consecutive players
+	 * @param players the number of players
+	 * @param masks masks[g] is the bitmask of the players added to for game g
+	 * @param amount amount[g] is the amount added for game g
+	 * @param count the number of games
+	 */
+	public void maskedAdd(double[] table, int base, int capacity, int players, int[] masks, double[] amount, int count);
+
+	/**
+	 * Works out x/(y*z) for each game.
+	 * @param x the column of numerators, from xoff
+	 * @param y the first column of factors of the denominators, from yoff
+	 * @param z the second column of factors of the denominators, from zoff
+	 * @param count the number of games
+	 * @param out the array the quotients are written to
+	 */
+	public void quotient(double[] x, int xoff, double[] y, int yoff, double[] z, int zoff, int count, double[] out);
+
+	/**
+	 * Decides each game's random choice as the threshold agents do: value/(draw+0.00001) compared with 1.
+	 * @param value the values
+	 * @param draw the uniform random numbers drawn
+	 * @param above true for yes when the ratio is above 1, false for yes when it is below
+	 * @param count the number of games
+	 * @param yes the array the decisions are written to
+	 */
+	public void decide(double[] value, double[] draw, boolean above, int count, boolean[] yes);
+
+	/**
+	 * The kernels as plain loops.
+	 */
+	public static class Scalar implements BatchKernels {
+
+		public void maskedSum(double[] table, int base, int capacity, int players, int[] masks, int count, double[] sum){
+			for(int g = 0; g < count; g++){
+				int m = masks[g];
+				double s = 0;
+				for(int i = 0; i < players; i++){
+					if((m & 1<<i) != 0) s += table[base + i*capacity + g];
+				}
+				sum[g] = s;
+			}
+		}
+
+		public void maskedAdd(double[] table, int base, int capacity, int players, int[] masks, double[] amount, int count){
+			for(int i = 0; i < players; i++){
+				int column = base + i*capacity;
+				for(int g = 0; g < count; g++){
+					if((masks[g] & 1<<i) != 0) table[column + g] += amount[g];
+				}
+			}
+		}
+
+		public void quotient(double[] x, int xoff, double[] y, int yoff, double[] z, int zoff, int count, double[] out){
+			for(int g = 0; g < count; g++) out[g] = x[xoff + g]/(y[yoff + g]*z[zoff + g]);
+		}
+
+		public void decide(double[] value, double[] draw, boolean above, int count, boolean[] yes){
+			for(int g = 0; g < count; g++){
+				double ratio = value[g]/(draw[g] + 0.00001);
+				yes[g] = above ? ratio > 1 : ratio < 1;
+			}
+		}
+	}
+
+	/**
+	 * @return the Vector API kernels if they are on the class path and the jdk.incubator.vector module is present,
+	 * unless the system property resistance.scalar is true, and otherwise the scalar kernels
+	 */
+	public static BatchKernels load(){
+		if(!Boolean.getBoolean("resistance.scalar")){
+			try{
+				return (BatchKernels) Class.forName("resistance.VectorKernels").getDeclaredConstructor().newInstance();
+			}catch(Exception e){
+				//not compiled in, fall back to the scalar kernels
+			}catch(LinkageError e){
+				//compiled in but the module is missing, fall back to the scalar kernels
+			}
+		}
+		return new Scalar();
+	}
+}
@@ -0,0 +1,345 @@
+package resistance;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Searches for the thresholds of a GAgent with CMA-ES, the covariance matrix adaptation evolution strategy,
+ * as an alternative to GeneticAlg.
+ *
+ * Each generation draws a small population of threshold vectors from a multivariate normal distribution, plays every one
+ * on the same bank of game scenarios (see ScenarioBank), and moves the mean of the distribution towards the better half.
+ * The covariance of the distribution learns which directions and scales of change pay off, so it needs far fewer
+ * games than mutating each threshold independently. The thresholds are searched relative to the initial ones,
+ * threshold j being initial[j]*(1 + x[j]), so thresholds of very different sizes move alike.
+ *
+ * The update follows N. Hansen, "The CMA Evolution Strategy: A Tutorial" (2016), with the default parameters given there.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class CmaEs {
+
+	private final GenomeSchema schema; //the bounds of the thresholds searched
+	private final int n; //the number of thresholds searched; only the GAgent's genes can be played
+	private final double[] initial;
+	private final double[] scale; //threshold j is initial[j] + scale[j]*x[j]
+	private final int generations;
+	private final int scenarios;
+	private final long seed;
+	private final Random rand;
+	private int lambda; //the number of candidates each generation
+	private Genome opponent = PotatoBot.GENOME;
+	private int parallelism = 1;
+	private ForkJoinPool pool;
+	private long games = 0;
+
+	/**
+	 * @param initial the thresholds the search starts from, one for each gene of Genome.SCHEMA
+	 * @param sigma the initial step size, as a fraction of each threshold, e.g. 0.3
+	 * @param generations the number of generations
+	 * @param scenarios the number of games each candidate plays each generation
+	 * @param seed the master seed of the search
+	 */
+	public CmaEs(double[] initial, double sigma, int generations, int scenarios, long seed){
+		this(Genome.SCHEMA, initial, sigma, generations, scenarios, seed);
+	}
+
+	/**
+	 * @param schema the bounds the thresholds are kept within, which must be the Genome.SIZE thresholds of a GAgent in order
+	 * @param initial the thresholds the search starts from, one for each gene of the schema
+	 * @param sigma the initial step size, as a fraction of each threshold, e.g. 0.3
+	 * @param generations the number of generations
+	 * @param scenarios the number of games each candidate plays each generation
+	 * @param seed the master seed of the search
+	 */
+	public CmaEs(GenomeSchema schema, double[] initial, double sigma, int generations, int scenarios, long seed){
+		GeneticAlg.checkSchema(schema);
+		this.schema = schema;
+		n = schema.size();
+		if(initial.length != n) throw new IllegalArgumentException("A GAgent has "+n+" thresholds, not "+initial.length);
+		this.initial = initial.clone();
+		this.sigma = sigma;
+		this.generations = generations;
+		this.scenarios = scenarios;
+		this.seed = seed;
+		rand = new Random(seed);
+		scale = new double[n];
+		for(int j = 0; j < n; j++) scale[j] = initial[j] != 0 ? Math.abs(initial[j]) : 1;
+		lambda = 4 + (int) (3*Math.log(n));
+	}
+
+	/**
+	 * @param lambda the number of candidates each generation, at least 2; larger is slower but copes better with noise
+	 */
+	public void setPopulation(int lambda){
+		if(lambda < 2) throw new IllegalArgumentException("Population must be at least 2");
+		this.lambda = lambda;
+	}
+
+	/**
+	 * @param opponent the genome of the agents the candidates play with, after the PinguBots (see ScenarioBank)
+	 */
+	public void setOpponent(Genome opponent){
+		this.opponent = opponent;
+	}
+
+	/**
+	 * @param threads the number of threads candidates are played on
+	 */
+	public void setParallelism(int threads){
+		if(threads < 1) throw new IllegalArgumentException("Parallelism must be at least 1");
+		parallelism = threads;
+		if(pool != null) pool.shutdown();
+		pool = threads > 1 ? new ForkJoinPool(threads) : null;
+	}
+
+	/**
+	 * @return the number of games played so far
+	 */
+	public long getGames(){
+		return games;
+	}
+
+	//the state of the search
+	private double sigma;
+	private double[] mean;
+	private double[][] C, B; //the covariance matrix, and its eigenvectors as columns
+	private double[] D; //the square roots of the eigenvalues
+	private double[] pc, ps; //the evolution paths
+
+	/**
+	 * Runs the search.
+	 * @return the thresholds at the mean of the final distribution
+	 */
+	public double[] run(){
+		int mu = lambda/2;
+		double[] weights = new double[mu];
+		double sum = 0, sumsq = 0;
+		for(int i = 0; i < mu; i++){
+			weights[i] = Math.log(mu + 0.5) - Math.log(i + 1);
+			sum += weights[i];
+		}
+		for(int i = 0; i < mu; i++){
+			weights[i] /= sum;
+			sumsq += weights[i]*weights[i];
+		}
+		double mueff = 1/sumsq;
+		double cc = (4 + mueff/n) / (n + 4 + 2*mueff/n);
+		double cs = (mueff + 2) / (n + mueff + 5);
+		double c1 = 2 / ((n + 1.3)*(n + 1.3) + mueff);
+		double cmu = Math.min(1 - c1, 2*(mueff - 2 + 1/mueff) / ((n + 2)*(n + 2) + mueff));
+		double damps = 1 + 2*Math.max(0, Math.sqrt((mueff - 1)/(n + 1)) - 1) + cs;
+		double chin = Math.sqrt(n)*(1 - 1.0/(4*n) + 1.0/(21*n*n));
+
+		mean = new double[n];
+		pc = new double[n];
+		ps = new double[n];
+		C = new double[n][n];
+		B = new double[n][n];
+		D = new double[n];
+		for(int i = 0; i < n; i++){
+			C[i][i] = 1;
+			B[i][i] = 1;
+			D[i] = 1;
+		}
+		double[][] x = new double[lambda][n];
+		double[][] y = new double[lambda][n];
+		Integer[] order = new Integer[lambda];
+
+		for(int generation = 0; generation < generations; generation++){
+			//draws the candidates
+			double[] z = new double[n];
+			for(int k = 0; k < lambda; k++){
+				for(int i = 0; i < n; i++) z[i] = D[i]*rand.nextGaussian();
+				for(int i = 0; i < n; i++){
+					double bz = 0;
+					for(int j = 0; j < n; j++) bz += B[i][j]*z[j];
+					y[k][i] = bz;
+					x[k][i] = mean[i] + sigma*bz;
+				}
+			}
+			final int[] wins = evaluate(x, Seeds.derive(seed, generation));
+			for(int k = 0; k < lambda; k++) order[k] = k;
+			Arrays.sort(order, new Comparator<Integer>(){
+				public int compare(Integer a, Integer b){
+					return wins[b] != wins[a] ? wins[b] - wins[a] : a - b;
+				}
+			});
+
+			//moves the mean to the weighted mean of the better half
+			double[] old = mean.clone();
+			double[] step = new double[n]; //the move of the mean, in units of sigma
+			for(int i = 0; i < n; i++){
+				double m = 0;
+				for(int r = 0; r < mu; r++) m += weights[r]*x[order[r]][i];
+				mean[i] = m;
+				step[i] = (m - old[i])/sigma;
+			}
+
+			//updates the evolution paths
+			double[] invsqrt = new double[n]; //C^-1/2 * step
+			for(int i = 0; i < n; i++){
+				double s = 0;
+				for(int j = 0; j < n; j++){
+					double bts = 0;
+					for(int l = 0; l < n; l++) bts += B[l][j]*step[l];
+					s += B[i][j]*bts/D[j];
+				}
+				invsqrt[i] = s;
+			}
+			double norm = 0;
+			for(int i = 0; i < n; i++){
+				ps[i] = (1 - cs)*ps[i] + Math.sqrt(cs*(2 - cs)*mueff)*invsqrt[i];
+				norm += ps[i]*ps[i];
+			}
+			norm = Math.sqrt(norm);
+			boolean hsig = norm/Math.sqrt(1 - Math.pow(1 - cs, 2*(generation + 1)))/chin < 1.4 + 2.0/(n + 1);
+			for(int i = 0; i < n; i++) pc[i] = (1 - cc)*pc[i] + (hsig ? Math.sqrt(cc*(2 - cc)*mueff)*step[i] : 0);
+
+			//adapts the covariance matrix and the step size
+			for(int i = 0; i < n; i++){
+				for(int j = 0; j <= i; j++){
+					double rankmu = 0;
+					for(int r = 0; r < mu; r++) rankmu += weights[r]*y[order[r]][i]*y[order[r]][j];
+					double c = (1 - c1 - cmu)*C[i][j]
+							+ c1*(pc[i]*pc[j] + (hsig ? 0 : cc*(2 - cc)*C[i][j]))
+							+ cmu*rankmu;
+					C[i][j] = c;
+					C[j][i] = c;
+				}
+			}
+			sigma *= Math.exp((cs/damps)*(norm/chin - 1));
+			eigen(C, B, D);
+
+			if(generation % 10 == 0 || generation == generations - 1){
+				System.out.println("Generation " + generation + ": best " + (double) wins[order[0]]/scenarios
+						+ ", sigma " + sigma + ", games " + games);
+			}
+		}
+		return thresholds(mean);
+	}
+
+	/**
+	 * @param x a point of the search space
+	 * @return the thresholds at the point
+	 */
+	private double[] thresholds(double[] x){
+		double[] t = new double[n];
+		for(int j = 0; j < n; j++) t[j] = schema.clamp(j, initial[j] + scale[j]*x[j]);
+		return t;
+	}
+
+	/**
+	 * Plays every candidate on the same bank of scenarios.
+	 * @param x the candidates
+	 * @param generationseed the seed of the generation, from which the bank is drawn
+	 * @return the number of games each candidate won
+	 */
+	private int[] evaluate(double[][] x, long generationseed){
+		ScenarioBank bank = new ScenarioBank(scenarios, new Random(generationseed));
+		Genome[] candidates = new Genome[x.length];
+		for(int k = 0; k < x.length; k++) candidates[k] = new Genome(k, thresholds(x[k]));
+		int total = x.length*scenarios;
+		Evaluation all = new Evaluation(bank, candidates, opponent, 0, total, Math.max(1, total/(parallelism*8)));
+		int[] wins = pool != null ? pool.invoke(all) : all.compute();
+		games += total;
+		return wins;
+	}
+
+	/**
+	 * Plays a range of the games of a generation, game g being candidate g/scenarios on scenario g%scenarios.
+	 */
+	private static class Evaluation extends RecursiveTask<int[]>{
+		private static final long serialVersionUID = 1L;
+		private final ScenarioBank bank;
+		private final Genome[] candidates;
+		private final Genome opponent;
+		private final int from, to, leafsize;
+
+		Evaluation(ScenarioBank bank, Genome[] candidates, Genome opponent, int from, int to, int leafsize){
+			this.bank = bank;
+			this.candidates = candidates;
+			this.opponent = opponent;
+			this.from = from;
+			this.to = to;
+			this.leafsize = leafsize;
+		}
+
+		protected int[] compute(){
+			if(to - from <= leafsize){
+				int[] wins = new int[candidates.length];
+				int scenarios = bank.size();
+				for(int g = from; g < to; g++){
+					int k = g/scenarios;
+					if(bank.play(g%scenarios, new AgentFactory.Genetic(candidates[k]), opponent)) wins[k]++;
+				}
+				return wins;
+			}
+			int mid = (from + to) >>> 1;
+			Evaluation left = new Evaluation(bank, candidates, opponent, from, mid, leafsize);
+			left.fork();
+			int[] wins = new Evaluation(bank, candidates, opponent, mid, to, leafsize).compute();
+			int[] other = left.join();
+			for(int k = 0; k < wins.length; k++) wins[k] += other[k];
+			return wins;
+		}
+	}
+
+	/**
+	 * Finds the eigenvectors and eigenvalues of a symmetric matrix by the cyclic Jacobi method,
+	 * which is simple and exact enough for the small matrices of the search.
+	 * @param a the matrix, which is not changed
+	 * @param vectors set to the eigenvectors, as columns
+	 * @param roots set to the square roots of the eigenvalues, with negative eigenvalues from rounding taken as tiny
+	 */
+	static void eigen(double[][] a, double[][] vectors, double[] roots){
+		int n = a.length;
+		double[][] m = new double[n][];
+		for(int i = 0; i < n; i++){
+			m[i] = a[i].clone();
+			Arrays.fill(vectors[i], 0);
+			vectors[i][i] = 1;
+		}
+		for(int sweep = 0; sweep < 100; sweep++){
+			double off = 0;
+			for(int p = 0; p < n; p++) for(int q = p+1; q < n; q++) off += m[p][q]*m[p][q];
+			if(off < 1e-30) break;
+			for(int p = 0; p < n; p++){
+				for(int q = p+1; q < n; q++){
+					if(m[p][q] == 0) continue;
+					//the rotation that zeroes m[p][q]
+					double theta = (m[q][q] - m[p][p]) / (2*m[p][q]);
+					double t = Math.signum(theta) / (Math.abs(theta) + Math.sqrt(theta*theta + 1));
+					if(theta == 0) t = 1;
+					double c = 1/Math.sqrt(t*t + 1), s = t*c;
+					for(int k = 0; k < n; k++){
+						double mkp = m[k][p], mkq = m[k][q];
+						m[k][p] = c*mkp - s*mkq;
+						m[k][q] = s*mkp + c*mkq;
+					}
+					for(int k = 0; k < n; k++){
+						double mpk = m[p][k], mqk = m[q][k];
+						m[p][k] = c*mpk - s*mqk;
+						m[q][k] = s*mpk + c*mqk;
+					}
+					for(int k = 0; k < n; k++){
+						double vkp = vectors[k][p], vkq = vectors[k][q];
+						vectors[k][p] = c*vkp - s*vkq;
+						vectors[k][q] = s*vkp + c*vkq;
+					}
+				}
+			}
+		}
+		for(int i = 0; i < n; i++) roots[i] = Math.sqrt(Math.max(m[i][i], 1e-20));
+	}
+
+	public static void main(String[] args){
+		double[] initialparam = {20,0.4,0.3,0.3,35,50,70};
+		CmaEs es = new CmaEs(initialparam, 0.3, 100, 200, new Random().nextLong());
+		es.setParallelism(Runtime.getRuntime().availableProcessors());
+		double[] best = es.run();
+		System.out.println("Best thresholds: " + Arrays.toString(best));
+		System.out.println("Games played: " + es.getGames());
+	}
+}
@@ -0,0 +1,178 @@
+package resistance;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Plays an agent with its time limits enforced.
+ *
+ * Every call is run on another thread and waited for only as long as the method's limit (see AgentCall).
+ * If the agent does not return in time, or throws, the default action is taken in its place and a violation is recorded:
+ * the first <i>number</i> seats are nominated, the vote is in favour, the mission is not betrayed and no one is accused.
+ * While a call that ran out of time is still running, later calls are not made to the agent and also take the default action,
+ * so the agent is never called by two threads at once.
+ *
+ * Calls are run on virtual threads when the JVM has them (Java 21 and later), or on a shared pool of daemon threads otherwise.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class DeadlineAgent implements FastAgent{
+
+	private static ExecutorService executor;
+
+	private final FastAgent agent;
+	private final int[] violations = new int[AgentCall.values().length]; //violations[c] is the number of calls to AgentCall c that broke their limit
+	private volatile boolean busy = false; //true while a call is running on the agent
+
+	/**
+	 * @param agent the agent to play
+	 */
+	public DeadlineAgent(FastAgent agent){
+		this.agent = agent;
+	}
+
+	/**
+	 * @return the agent being played
+	 */
+	public FastAgent getAgent(){
+		return agent;
+	}
+
+	/**
+	 * @return the total number of calls that broke their time limit
+	 */
+	public int getViolations(){
+		int n = 0;
+		for(int v : violations) n += v;
+		return n;
+	}
+
+	/**
+	 * @param call a method
+	 * @return the number of calls to the method that broke its time limit
+	 */
+	public int getViolations(AgentCall call){
+		return violations[call.ordinal()];
+	}
+
+	/**
+	 * Gets the executor agent calls are run on, creating it on first use.
+	 * Virtual threads are found by reflection so that the game still compiles and runs on older JVMs.
+	 * @return the executor
+	 */
+	private static synchronized ExecutorService executor(){
+		if(executor == null){
+			try{
+				executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			}catch(Exception e){
+				executor = Executors.newCachedThreadPool(new ThreadFactory(){
+					public Thread newThread(Runnable r){
+						Thread t = new Thread(r, "DeadlineAgent");
+						t.setDaemon(true);
+						return t;
+					}
+				});
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * Makes a call to the agent, waiting no longer than the method's limit.
+	 * @param call the method called
+	 * @param task the call
+	 * @param fallback the default result
+	 * @return the agent's result, or the default if the agent broke the limit
+	 */
+	private <T> T within(AgentCall call, final Callable<T> task, T fallback){
+		if(busy){
+			//an earlier call ran out of time and has not yet returned
+			violations[call.ordinal()]++;
+			return fallback;
+		}
+		busy = true;
+		final AtomicBoolean claimed = new AtomicBoolean(false); //set by whichever of the call and the timeout happens first
+		Future<T> f = executor().submit(new Callable<T>(){
+			public T call() throws Exception{
+				if(!claimed.compareAndSet(false, true)) return null;
+				try{
+					return task.call();
+				}finally{busy = false;}
+			}
+		});
+		try{
+			T result = f.get(call.getLimit(), TimeUnit.MILLISECONDS);
+			return result == null ? fallback : result;
+		}catch(TimeoutException e){
+			if(claimed.compareAndSet(false, true)) busy = false; //the call never started, so the agent is not busy
+			f.cancel(true);
+		}catch(ExecutionException e){
+		}catch(InterruptedException e){
+			if(claimed.compareAndSet(false, true)) busy = false;
+			f.cancel(true);
+			Thread.currentThread().interrupt();
+		}
+		violations[call.ordinal()]++;
+		return fallback;
+	}
+
+	public void get_status(final int name, final int players, final int spies, final int mission, final int failures){
+		within(AgentCall.GET_STATUS, new Callable<Boolean>(){
+			public Boolean call(){ agent.get_status(name, players, spies, mission, failures); return true; }
+		}, false);
+	}
+
+	public int do_Nominate(final int number){
+		return within(AgentCall.DO_NOMINATE, new Callable<Integer>(){
+			public Integer call(){ return agent.do_Nominate(number); }
+		}, (1<<number)-1);
+	}
+
+	public void get_ProposedMission(final int leader, final int mission){
+		within(AgentCall.GET_PROPOSED_MISSION, new Callable<Boolean>(){
+			public Boolean call(){ agent.get_ProposedMission(leader, mission); return true; }
+		}, false);
+	}
+
+	public boolean do_Vote(){
+		return within(AgentCall.DO_VOTE, new Callable<Boolean>(){
+			public Boolean call(){ return agent.do_Vote(); }
+		}, true);
+	}
+
+	public void get_Votes(final int yays){
+		within(AgentCall.GET_VOTES, new Callable<Boolean>(){
+			public Boolean call(){ agent.get_Votes(yays); return true; }
+		}, false);
+	}
+
+	public void get_Mission(final int mission){
+		within(AgentCall.GET_MISSION, new Callable<Boolean>(){
+			public Boolean call(){ agent.get_Mission(mission); return true; }
+		}, false);
+	}
+
+	public boolean do_Betray(){
+		return within(AgentCall.DO_BETRAY, new Callable<Boolean>(){
+			public Boolean call(){ return agent.do_Betray(); }
+		}, false);
+	}
+
+	public void get_Traitors(final int traitors){
+		within(AgentCall.GET_TRAITORS, new Callable<Boolean>(){
+			public Boolean call(){ agent.get_Traitors(traitors); return true; }
+		}, false);
+	}
+
+	public int do_Accuse(){
+		return within(AgentCall.DO_ACCUSE, new Callable<Integer>(){
+			public Integer call(){ return agent.do_Accuse(); }
+		}, 0);
+	}
+
+	public void get_Accusation(final int accuser, final int accused){
+		within(AgentCall.GET_ACCUSATION, new Callable<Boolean>(){
+			public Boolean call(){ agent.get_Accusation(accuser, accused); return true; }
+		}, false);
+	}
+}
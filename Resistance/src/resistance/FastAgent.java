@@ -0,0 +1,88 @@
+/**
+ * A Java interface for an agent to play in Resistance without Strings.
+ * Each agent is identified by its seat, 0 for the first player added to the game, whose name in an Agent game would be (char)(65+seat).
+ * Sets of agents (teams, votes, spies) are encoded as int bitmasks, with bit i set if the agent in seat i is in the set.
+ * Otherwise the game is played exactly as for an Agent: the methods are called in the same order, with the same time limits,
+ * and if actions do not meet the required specification, the same default action will be recorded.
+ * @author Tianchi Ren, Jelyn Thong
+ * **/
+package resistance; 
+
+public interface FastAgent{
+
+  /**
+   * Reports the current status, including players seat, the number of players, the spies (if known), the mission number and the number of failed missions
+   * @param name the agent's seat.
+   * @param players the number of players in the game, who sit in seats 0 to players-1.
+   * @param spies a bitmask of the spies, if the agent is a spy, or 0 if the agent is not a spy. 
+   * @param mission the next mission to be launched
+   * @param failures the number of failed missions
+   * @return within 100ms
+   * */
+  public void get_status(int name, int players, int spies, int mission, int failures);
+  
+  /**
+   * Nominates a group of agents to go on a mission.
+   * If the bitmask does not correspond to a legitimate mission (<i>number</i> of agents in the game), 
+   * a default nomination of the first <i>number</i> seats will be reported, as if this was what the agent nominated.
+   * @param number the number of agents to be sent on the mission
+   * @return a bitmask of the agents in the mission, within 1sec
+   * */
+  public int do_Nominate(int number);
+
+  /**
+   * Provides information of a given mission.
+   * @param leader the seat of the leader who proposed the mission
+   * @param mission a bitmask of the agents in the mission
+   **/
+  public void get_ProposedMission(int leader, int mission);
+
+  /**
+   * Gets an agents vote on the last reported mission
+   * @return true, if the agent votes for the mission, false, if they vote against it, within 1 sec
+   * */
+  public boolean do_Vote();
+
+  /**
+   * Reports the votes for the previous mission
+   * @param yays a bitmask of the agents who voted for the mission
+   * @return within 100ms
+   **/
+  public void get_Votes(int yays); 
+
+  /**
+   * Reports the agents being sent on a mission.
+   * @param mission a bitmask of the agents being sent on the mission
+   * @return within 100ms
+   **/
+  public void get_Mission(int mission);
+
+  /**
+   * Agent chooses to betray or not.
+   * @return true if agent betrays, false otherwise, within 1 sec
+   **/
+  public boolean do_Betray();
+
+  /**
+   * Reports the number of people who betrayed the mission
+   * @param traitors the number of people on the mission who chose to betray (0 for success, greater than 0 for failure)
+   * @return within 100ms
+   **/
+  public void get_Traitors(int traitors);
+
+  /**
+   * Optional method to accuse other Agents of being spies. 
+   * Default action should return 0. 
+   * @return a bitmask of the accused agents, within 1 sec 
+   * */
+  public int do_Accuse();
+
+  /**
+   * Optional method to process an accusation.
+   * @param accuser the seat of the agent making the accusation.
+   * @param accused a bitmask of the agents being accused.
+   * @return within 100ms
+   * */
+  public void get_Accusation(int accuser, int accused);
+
+}
@@ -0,0 +1,183 @@
+package resistance;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Remembers the wins and losses of threshold vectors across the generations of the genetic algorithm,
+ * so that an agent that survives, or is made again with the same thresholds, keeps the games it has already played
+ * and its fitness grows more certain each generation instead of starting again.
+ *
+ * The cache holds a bounded number of vectors, dropping the least recently used when full,
+ * and forgets a vector not seen for more than a given number of generations.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class FitnessCache {
+
+	/**
+	 * The games played by one threshold vector.
+	 */
+	public static class Entry {
+		private double wins;
+		private double losses;
+		private int seen; //the last generation the vector was looked up or added in
+
+		public double getWins(){ return wins; }
+		public double getLosses(){ return losses; }
+	}
+
+	/**
+	 * A threshold vector as a key, compared by value.
+	 */
+	private static final class Key {
+		private final double[] values;
+		private final int hash;
+
+		Key(double[] values){
+			this.values = values;
+			hash = Arrays.hashCode(values);
+		}
+
+		public int hashCode(){
+			return hash;
+		}
+
+		public boolean equals(Object o){
+			return o instanceof Key && Arrays.equals(values, ((Key) o).values);
+		}
+	}
+
+	private final int capacity;
+	private final int maxage;
+	private final LinkedHashMap<Key,Entry> entries;
+	private long hits = 0, misses = 0;
+
+	/**
+	 * @param capacity the most vectors held
+	 * @param maxage the most generations a vector is kept without being seen
+	 */
+	public FitnessCache(final int capacity, int maxage){
+		if(capacity < 1) throw new IllegalArgumentException("Capacity must be at least 1");
+		this.capacity = capacity;
+		this.maxage = maxage;
+		entries = new LinkedHashMap<Key,Entry>(16, 0.75f, true){
+			private static final long serialVersionUID = 1L;
+			protected boolean removeEldestEntry(Map.Entry<Key,FitnessCache.Entry> eldest){
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Looks up the games of a threshold vector.
+	 * @param thresholds the vector
+	 * @param generation the current generation
+	 * @return the games played by the vector, or null if it is not in the cache
+	 */
+	public Entry get(double[] thresholds, int generation){
+		Key key = new Key(thresholds);
+		Entry e = entries.get(key);
+		if(e != null && generation - e.seen > maxage){
+			entries.remove(key);
+			e = null;
+		}
+		if(e == null){
+			misses++;
+			return null;
+		}
+		hits++;
+		e.seen = generation;
+		return e;
+	}
+
+	/**
+	 * Adds games to those of a threshold vector.
+	 * @param thresholds the vector, which is copied
+	 * @param wins the games won
+	 * @param losses the games lost
+	 * @param generation the current generation
+	 */
+	public void add(double[] thresholds, double wins, double losses, int generation){
+		Key key = new Key(thresholds.clone());
+		Entry e = entries.get(key);
+		if(e == null){
+			e = new Entry();
+			entries.put(key, e);
+		}
+		e.wins += wins;
+		e.losses += losses;
+		e.seen = generation;
+	}
+
+	/**
+	 * @return the number of vectors held
+	 */
+	public int size(){
+		return entries.size();
+	}
+
+	/**
+	 * @return the fraction of lookups that found their vector
+	 */
+	public double getHitRate(){
+		return hits + misses == 0 ? 0 : (double) hits/(hits + misses);
+	}
+
+	/**
+	 * @return the most vectors held
+	 */
+	public int getCapacity(){
+		return capacity;
+	}
+
+	/**
+	 * @return the most generations a vector is kept without being seen
+	 */
+	public int getMaxAge(){
+		return maxage;
+	}
+
+	/**
+	 * Writes the vectors held, least recently used first, with their games and the generation each was last seen,
+	 * and the counts of hits and misses.
+	 * @param out the stream to write to
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void write(DataOutput out) throws IOException{
+		out.writeLong(hits);
+		out.writeLong(misses);
+		out.writeInt(entries.size());
+		for(Map.Entry<Key,Entry> e : entries.entrySet()){
+			double[] values = e.getKey().values;
+			out.writeInt(values.length);
+			for(double v : values) out.writeDouble(v);
+			out.writeDouble(e.getValue().wins);
+			out.writeDouble(e.getValue().losses);
+			out.writeInt(e.getValue().seen);
+		}
+	}
+
+	/**
+	 * Reads the vectors written by write, replacing the contents of this cache, so it holds and drops the same vectors
+	 * as the cache that was written.
+	 * @param in the stream to read from
+	 * @throws IOException if the stream cannot be read, or holds more vectors than this cache can
+	 */
+	public void read(DataInput in) throws IOException{
+		hits = in.readLong();
+		misses = in.readLong();
+		int size = in.readInt();
+		if(size < 0 || size > capacity) throw new IOException("Cannot hold " + size + " vectors in a cache of " + capacity);
+		entries.clear();
+		for(int i = 0; i < size; i++){
+			double[] values = new double[in.readInt()];
+			for(int j = 0; j < values.length; j++) values[j] = in.readDouble();
+			Entry e = new Entry();
+			e.wins = in.readDouble();
+			e.losses = in.readDouble();
+			e.seen = in.readInt();
+			entries.put(new Key(values), e);
+		}
+	}
+}
@@ -9,20 +9,25 @@ import java.io.*;
  * */
 
 public class Game{
-  private Map<Character,Agent> players;
-  public Set<Character> spies;
-  private String playerString = "";
-  private String spyString = "";
-  private String resString = "";
+  private FastAgent[] players; //players[i] is the agent in seat i, named (char)(65+i)
+  private int spies; //bit i is set if the player in seat i is a spy
   private int numPlayers = 0;
   private static final int[] spyNum = {2,2,3,3,3,4}; //spyNum[n-5] is the number of spies in an n player game
   private static final int[][] missionNum = {{2,3,2,3,3},{2,3,4,3,4},{2,3,3,4,4},{3,4,4,5,5},{3,4,4,5,5},{3,4,4,5,5}};
                                     //missionNum[n-5][i] is the number to send on mission i in a  in an n player game
   private Random rand;
-  private File logFile;
+  private long seed;
+  private int round; //the round being played
+  private GameRecord record; //the record of this game, if it is being recorded
+  private GameRecordWriter recorder; //where the record is written when the game ends
+  private GameLog logFile;
+  private StringBuilder logBuffer; //the lines logged so far this game, written to the log file when the game ends
   private boolean logging = false;
   private boolean started = false;
   private long stopwatch = 0;
+  private boolean deadlines = false; //whether agents' time limits are enforced
+  private LatencyStats timings; //where the latency of every agent call is recorded, if they are being timed
+  private LatencyHistogram[][] seatTimings = new LatencyHistogram[10][]; //seatTimings[i] are the histograms of the class of the agent in seat i
 
 
   /**
@@ -30,63 +35,205 @@ public class Game{
    * Game log printed to stdout
    * */
   public Game(){
-    init();
+    this(new Random().nextLong());
+  }
+
+  /**
+   * Creates an empty game, whose spies and leaders are drawn from the given seed.
+   * Game log printed to stdout
+   * @param seed the seed of the game
+   * */
+  public Game(long seed){
+    init(seed);
   }
 
   /**
    * Creates an empty game
+   * The log of the game is written to the file as one record when the game ends, so games may share a log file.
    * @param logFile path to the log file
    * */
   public Game(String fName){
-    logFile = new File(fName);
-    logging = true;
-    init();
+    this(fName, new Random().nextLong());
+  }
+
+  /**
+   * Creates an empty game, whose spies and leaders are drawn from the given seed.
+   * @param logFile path to the log file
+   * @param seed the seed of the game
+   * */
+  public Game(String fName, long seed){
+    try{
+      logFile = GameLog.open(fName);
+      logBuffer = new StringBuilder(1024);
+      logging = true;
+    }catch(IOException e){e.printStackTrace();}
+    init(seed);
   }
 
   /**
    * Initializes the data structures for the game
+   * @param seed the seed of the game
    * */
-private void init(){
+private void init(long seed){
    
-    players = new HashMap<Character,Agent>();
-    spies = new HashSet<Character>();
-    rand = new Random();
-    long seed = rand.nextLong();
-    rand.setSeed(seed);
-    log("Seed: "+seed);
+    players = new FastAgent[10];
+    spies = 0;
+    this.seed = seed;
+    rand = new Random(Seeds.derive(seed, 0));
+    if(logging) log("Seed: "+seed);
+  }
+
+  /**
+   * @return the seed of the game
+   * */
+  public long getSeed(){
+    return seed;
   }
 
   /**
-   * Writes the String to the log file
+   * Gets the seed for the agent in a seat, so that a game played again from its seed with agents made from these seeds is played the same way.
+   * @param seat the seat, 0 for the first player added
+   * @return the seed for the agent's random numbers
+   * */
+  public long getSeatSeed(int seat){
+    return Seeds.derive(seed, seat+1);
+  }
+
+  /**
+   * Adds the String as a line of the game's log
    * @param msg the String to log
    * */
   private void log(String msg){
     if(logging){
-      try{
-        FileWriter log = new FileWriter(logFile,true);
-        log.write(msg);
-        
-        log.close();
-      }catch(IOException e){e.printStackTrace();}
+      logBuffer.append(msg).append('\n');
     }
     else{
       //System.out.println(msg);
     }
   }  
 
+  /**
+   * Hands the lines logged so far to the log file, to be written by its background thread.
+   * */
+  private void flushLog(){
+    if(logging && logBuffer.length() > 0){
+      try{
+        logFile.write(logBuffer.toString());
+      }catch(IOException e){
+        e.printStackTrace();
+        logging = false; //the log can no longer be written
+      }
+      logBuffer.setLength(0);
+    }
+  }
+
 
   /**
    * Adds a player to a game. Once a player is added they cannot be removed
    * @param a the agent to be added
    * */
   public void addPlayer(Agent a){
+    addPlayer(a instanceof SeatAgent ? ((SeatAgent) a).fast() : new AgentAdapter(a));
+  }
+
+  /**
+   * Adds a player to a game. Once a player is added they cannot be removed
+   * @param a the agent to be added
+   * */
+  public void addPlayer(FastAgent a){
     if(numPlayers > 9) throw new RuntimeException("Too many players ");
     else if(started) throw new RuntimeException("Game already underway");
     else{
-      Character name = (char)(65+numPlayers++);
-      players.put(name, a);
-      log("Player "+name+" added.");
+      players[numPlayers] = deadlines ? new DeadlineAgent(a) : a;
+      if(timings != null) seatTimings[numPlayers] = timings.forAgent(agentName(a));
+      if(logging) log("Player "+Seats.name(numPlayers)+" added.");
+      numPlayers++;
+    }
+  }
+
+  /**
+   * Records the game in a GameRecord, and writes the record when the game ends. Must be called before the game is set up.
+   * @param w the writer to write the record with, or null to only keep the record in memory
+   * */
+  public void setRecorder(GameRecordWriter w){
+    if(started) throw new RuntimeException("Game already underway");
+    recorder = w;
+    if(record == null) record = new GameRecord();
+  }
+
+  /**
+   * @return the record of the game, or null if it is not being recorded
+   * */
+  public GameRecord getRecord(){
+    return record;
+  }
+
+  /**
+   * Times every call the game makes to an agent, recording the latencies in the histograms of the agent's class.
+   * @param stats the histograms to record into, which should not be shared with a game on another thread
+   * */
+  public void setTimings(LatencyStats stats){
+    timings = stats;
+    for(int i = 0; i<numPlayers; i++) seatTimings[i] = stats == null ? null : stats.forAgent(agentName(players[i]));
+  }
+
+  /**
+   * Enforces the time limits of agent methods, so a slow or hung agent cannot stall the game.
+   * Each call is made on another thread, and if the agent does not return in time the default action is taken instead and a violation recorded.
+   * Must be called before the game is set up.
+   * @param enforce true to enforce the limits
+   * */
+  public void setDeadlines(boolean enforce){
+    if(started) throw new RuntimeException("Game already underway");
+    for(int i = 0; i<numPlayers; i++){
+      if(enforce && !deadlines) players[i] = new DeadlineAgent(players[i]);
+      else if(!enforce && deadlines) players[i] = ((DeadlineAgent) players[i]).getAgent();
     }
+    deadlines = enforce;
+  }
+
+  /**
+   * @param seat the seat of a player
+   * @return the number of the player's calls that broke their time limit and were replaced by the default action, 0 if limits are not enforced
+   * */
+  public int getViolations(int seat){
+    return deadlines ? ((DeadlineAgent) players[seat]).getViolations() : 0;
+  }
+
+  /**
+   * @param a an agent
+   * @return the name of the agent's class, or of the Agent's class if it is adapted
+   * */
+  private static String agentName(FastAgent a){
+    if(a instanceof DeadlineAgent) a = ((DeadlineAgent) a).getAgent();
+    if(a instanceof AgentAdapter) return ((AgentAdapter) a).getAgent().getClass().getSimpleName();
+    if(a instanceof SeatAgent.Fast) return ((SeatAgent.Fast) a).getAgent().getClass().getSimpleName();
+    return a.getClass().getSimpleName();
+  }
+
+  /**
+   * @param players the number of players in a game
+   * @return the number of spies in a game with that many players
+   * */
+  static int spies(int players){
+    return spyNum[players-5];
+  }
+
+  /**
+   * @param players the number of players in a game
+   * @param round the round, from 1
+   * @return the number of players sent on the round's mission
+   * */
+  static int missionSize(int players, int round){
+    return missionNum[players-5][round-1];
+  }
+
+  /**
+   * Starts the record of the game, once the spies are chosen.
+   * */
+  private void recordStart(){
+    record.start(seed, numPlayers, spies);
+    for(int i = 0; i<numPlayers; i++) record.seated(i, GameRecord.kind(agentName(players[i])));
   }
 
   /**
@@ -98,17 +245,33 @@ private void init(){
     else if(started) throw new RuntimeException("Game already underway");
     else{
       for(int i = 0; i<spyNum[numPlayers-5]; i++){
-        char spy = ' ';
-        while(spy==' ' || spies.contains(spy)){
-          spy = (char)(65+rand.nextInt(numPlayers));
+        int spy = rand.nextInt(numPlayers);
+        while((spies & 1<<spy) != 0){
+          spy = rand.nextInt(numPlayers);
         }
-        spies.add(spy);
+        spies |= 1<<spy;
       }
-      for(Character c: players.keySet())playerString+=c;
-      for(Character c: spies){spyString+=c; resString+='?';}
+      if(record != null) recordStart();
       statusUpdate(1,0);
       started= true;
-      log("Game set up. Spys allocated");
+      if(logging) log("Game set up. Spys allocated");
+    }
+  }
+
+  /**
+   * Sets up the game with the given players as spies, instead of drawing them at random, and informs all players of their status.
+   * @param spies the spies, a bitmask of seats with as many seats set as the rules give spies
+   */
+  public void setup(int spies){
+    if(numPlayers < 5) throw new RuntimeException("Too few players");
+    else if(started) throw new RuntimeException("Game already underway");
+    else if(spies >>> numPlayers != 0 || Integer.bitCount(spies) != spyNum[numPlayers-5]) throw new IllegalArgumentException("Invalid spies");
+    else{
+      this.spies = spies;
+      if(record != null) recordStart();
+      statusUpdate(1,0);
+      started= true;
+      if(logging) log("Game set up. Spys allocated");
     }
   }
 
@@ -116,7 +279,7 @@ private void init(){
    * Starts a timer for Agent method calls
    * */
   public void stopwatchOn(){
-    stopwatch = System.currentTimeMillis();
+    stopwatch = System.nanoTime();
   }
 
   /**
@@ -125,25 +288,33 @@ private void init(){
    * @param player the player who the violation will be recorded against.
    * */
   public void stopwatchOff(long limit, Character player){
-    long delay = System.currentTimeMillis()-stopwatch;
+    long delay = (System.nanoTime()-stopwatch)/1000000;
     if(delay>limit)
       log("Player: "+player+". Time exceeded by "+delay);
   }
 
+  /**
+   * Records the time since the stopwatch started against a player's method, and logs a violation if the method's time limit was exceeded.
+   * @param call the method called
+   * @param seat the seat of the player who the time will be recorded against.
+   * */
+  private void stopwatchOff(AgentCall call, int seat){
+    long nanos = System.nanoTime()-stopwatch;
+    if(timings != null) seatTimings[seat][call.ordinal()].record(nanos);
+    long delay = nanos/1000000;
+    if(delay>call.getLimit())
+      log("Player: "+Seats.name(seat)+". Time exceeded by "+delay);
+  }
+
   /**
    * Sends a status update to all players.
-   * The status includes the players name, the player string, the spys (or a string of ? if the player is not a spy, the number of rounds played and the number of rounds failed)
+   * The status includes the players seat, the number of players, the spys (or 0 if the player is not a spy), the number of rounds played and the number of rounds failed
    * @param round the current round
    * @param fails the number of rounds failed
    **/
   private void statusUpdate(int round, int fails){
-    for(Character c: players.keySet()){
-      if(spies.contains(c)){
-        stopwatchOn(); players.get(c).get_status(""+c,playerString,spyString,round,fails); stopwatchOff(100,c);
-      }
-      else{ 
-        stopwatchOn(); players.get(c).get_status(""+c,playerString,resString,round,fails); stopwatchOff(100,c);
-      }
+    for(int i = 0; i<numPlayers; i++){
+      stopwatchOn(); players[i].get_status(i,numPlayers,(spies & 1<<i) != 0?spies:0,round,fails); stopwatchOff(AgentCall.GET_STATUS,i);
     }
   }
 
@@ -151,52 +322,42 @@ private void init(){
    * This method picks a random leader for the next round and has them nominate a mission team.
    * If the leader does not pick a legitimate mission team (wrong number of agents, or agents that are not in the game) a default selection is given instead.
    * @param round the round in the game the mission is for.
-   * @return a String containing the names of the agents being sent on the mission
+   * @return a bitmask of the seats of the agents being sent on the mission
    * */
-  private String nominate(int round){
-    Character leader = (char)(rand.nextInt(numPlayers)+65);
+  int nominate(int round){
+    int leader = rand.nextInt(numPlayers);
     int mNum = missionNum[numPlayers-5][round-1];
-    stopwatchOn(); String team = players.get(leader).do_Nominate(mNum); stopwatchOff(1000,leader);
-    char[] tA = team.toCharArray();
-    Arrays.sort(tA);
-    boolean legit = tA.length==mNum;
-    for(int i = 0; i<mNum && legit; i++){
-      if(!players.keySet().contains(tA[i])) legit = false;
-      if(i>0 && tA[i]==tA[i-1]) legit=false;
-    }
-    if(!legit){
-      team = "";
-      for(int i = 0; i< mNum; i++) team+=(char)(65+i);
-    }
-    for(Character c: players.keySet()){
-      stopwatchOn(); players.get(c).get_ProposedMission(leader+"", team); stopwatchOff(100, c);
+    stopwatchOn(); int mask = players[leader].do_Nominate(mNum); stopwatchOff(AgentCall.DO_NOMINATE,leader);
+    if(mask < 0 || mask >= 1<<numPlayers || Integer.bitCount(mask) != mNum)
+      mask = (1<<mNum)-1;
+    for(int i = 0; i<numPlayers; i++){
+      stopwatchOn(); players[i].get_ProposedMission(leader, mask); stopwatchOff(AgentCall.GET_PROPOSED_MISSION, i);
     }
-    log(leader+" nominated "+team);
-    return team;
+    if(record != null) record.nominated(round, leader, mask);
+    if(logging) log(Seats.name(leader)+" nominated "+Seats.names(mask));
+    return mask;
   }
 
   /**
    * This method requests votes from all players on the most recently proposed mission teams, and reports whether a majority voted yes.
-   * It counts the votes and reports a String of all agents who voted in favour to the each agent.
+   * It counts the votes and reports a bitmask of all agents who voted in favour to the each agent.
    * @return true if a strict majority supported the mission.
    * */
   private boolean vote(){
-   int votes = 0;
-   String yays = "";
-   for(Character c: players.keySet()){
+   int yays = 0;
+   for(int i = 0; i<numPlayers; i++){
       stopwatchOn(); 
-      if(players.get(c).do_Vote()){
-        votes++;
-        yays+=c;
-       }
-      stopwatchOff(1000,c);
+      if(players[i].do_Vote()) yays |= 1<<i;
+      stopwatchOff(AgentCall.DO_VOTE,i);
     }
-    for(Character c: players.keySet()){
+    for(int i = 0; i<numPlayers; i++){
       stopwatchOn();
-      players.get(c).get_Votes(yays);
-      stopwatchOff(100,c);
+      players[i].get_Votes(yays);
+      stopwatchOff(AgentCall.GET_VOTES,i);
     }
-    log(votes+" votes for: "+yays);
+    if(record != null) record.voted(round, yays);
+    int votes = Integer.bitCount(yays);
+    if(logging) log(votes+" votes for: "+Seats.names(yays));
     return (votes>numPlayers/2);  
   }
 
@@ -209,25 +370,40 @@ private void init(){
    * @return the number of agents who betray the mission.
    * */
   public int mission(String team){
-    for(Character c: players.keySet()){
+    int mask = Seats.mask(team, numPlayers);
+    if(mask == -1) throw new IllegalArgumentException("Not a team of players: "+team);
+    return mission(mask);
+  }
+
+  /**
+   * Polls the mission team on whether they betray or not, and reports the result.
+   * @param mask a bitmask of the seats on the team
+   * @return the number of agents who betray the mission.
+   * */
+  private int mission(int mask){
+    for(int i = 0; i<numPlayers; i++){
       stopwatchOn();
-      players.get(c).get_Mission(team);
-      stopwatchOff(100,c);
+      players[i].get_Mission(mask);
+      stopwatchOff(AgentCall.GET_MISSION,i);
     }
     int traitors = 0;
-    for(Character c: team.toCharArray()){
+    int betrayers = 0;
+    for(int i = 0; i<numPlayers; i++){
+      if((mask & spies & 1<<i) == 0) continue;
       stopwatchOn();
-      if(spies.contains(c) && players.get(c).do_Betray()) traitors++;
-      //System.out.println("Betray probability :" + players.get(c).getvalue());
-      //System.out.println("Suspicion: " + players.get(c).getownsuspicion()); 
-      stopwatchOff(1000,c);
+      if(players[i].do_Betray()){
+        traitors++;
+        betrayers |= 1<<i;
+      }
+      stopwatchOff(AgentCall.DO_BETRAY,i);
     }
-    for(Character c: players.keySet()){
+    if(record != null && round >= 1 && round <= 5) record.betrayed(round, betrayers);
+    for(int i = 0; i<numPlayers; i++){
       stopwatchOn();
-      players.get(c).get_Traitors(traitors);
-      stopwatchOff(100,c);
+      players[i].get_Traitors(traitors);
+      stopwatchOff(AgentCall.GET_TRAITORS,i);
     }
-    log(traitors +(traitors==1?" spy ":" spies ")+ "betrayed the mission");
+    if(logging) log(traitors +(traitors==1?" spy ":" spies ")+ "betrayed the mission");
     return traitors;  
   }
 
@@ -238,168 +414,111 @@ private void init(){
    * */
   public boolean play(){
     int fails = 0;
-    for(int round = 1; round<=5; round++){
-      String team = nominate(round);
+    for(round = 1; round<=5; round++){
+      int mask = nominate(round);
       int voteRnd = 0;
       while(voteRnd++<5 && !vote())
-        team = nominate(round);
-      log(team+" elected");
-      int traitors = mission(team);
+        mask = nominate(round);
+      if(logging) log(Seats.names(mask)+" elected");
+      int traitors = mission(mask);
       
       if(traitors !=0 && (traitors !=1 || round !=4 || numPlayers<7)){
         fails++;
-        log("Mission failed");
+        if(logging) log("Mission failed");
       }
-      else log("Mission succeeded");
+      else if(logging) log("Mission succeeded");
       statusUpdate(round+1, fails);
       
    
       
+    }
+    if(record != null){
+      record.finished(fails<=2);
+      if(recorder != null) recorder.write(record);
     }
     if(fails>2) {
-    	log("Government Wins! "+fails+" missions failed."); 
-    	log("The Government Spies were "+spyString+".");
+    	if(logging){
+    	  log("Government Wins! "+fails+" missions failed."); 
+    	  log("The Government Spies were "+Seats.names(spies)+".");
+    	  flushLog();
+    	}
     	return false; 
     }
     else {
-    	log("Resistance Wins! "+fails+" missions failed.");
-    	log("The Government Spies were "+spyString+".");
+    	if(logging){
+    	  log("Resistance Wins! "+fails+" missions failed.");
+    	  log("The Government Spies were "+Seats.names(spies)+".");
+    	  flushLog();
+    	}
     	return true; 
     }
     
   }
 
+  /**
+   * Reports whether a seat holds a spy. Only meaningful once the game is set up.
+   * @param seat the seat of the player, 0 for the first player added
+   * @return true if the player in the seat is a spy
+   * */
+  public boolean isSpy(int seat){
+    return (spies & 1<<seat) != 0;
+  }
+
+
+  private static final double[] initialparam = {16.514,0.3537,0.3274,0.2776,38.449,67.295,79.52};
+
+  /**
+   * Plays a tournament on every core until the GAgent's win rate is known to within 1% (at 95%), or 100,000 games are played,
+   * and prints the win rates. The rule is checked every 256 games, and its level holds over all the checks up to the cap.
+   * The run does not stop when the GAgent is significantly better or worse than the other agents: they fill
+   * seats of the same games as the GAgent, often several of them, so their results are not the independent samples
+   * StoppingRule.Separated assumes, and the printed intervals are only a rough comparison for the same reason.
+   * @param t the tournament, with its lineup set
+   **/
+  private static void runsim(Tournament t){
+    int cap = 100000, interval = 256;
+    int looks = (cap + interval - 1)/interval;
+    t.setGames(cap);
+    t.setThreads(Runtime.getRuntime().availableProcessors());
+    t.setStoppingRule(new StoppingRule.Precision("GAgent", 0.01, 0.95, looks), interval);
+    TournamentStats stats = t.run();
+    stats.print(System.out);
+    double z = WinRate.z(0.95);
+    for(String agent : stats.getAgents()){
+      long wins = stats.getWins(agent, -1, 0), games = stats.getGames(agent, -1, 0);
+      System.out.println(String.format("%-16s 95%% interval %.4f - %.4f", agent, WinRate.lower(wins, games, z), WinRate.upper(wins, games, z)));
+    }
+    if(!t.stoppedEarly()) System.out.println("Stopped at the game cap");
+  }
 
   /**
    * Includes one GAgent and one Eagent and the rest are random agents. 
    **/
   public static void runsim1(){
-	  int EAwins = 0; 
-		int GAwins = 0;
-	  int numberofgames = 10000; 
-		
-		Random r = new Random(); 
-		double[] initialparam = {16.514,0.3537,0.3274,0.2776,38.449,67.295,79.52};
-		int numberofbots = r.nextInt(6) + 5;
-		GAgent awesome = new GAgent(1);
-		PinguBot EA = new PinguBot(); 
-		awesome.init();
-		awesome.get_thresholds(initialparam); 
-		for(int i = 0; i < numberofgames;i++){
-		Game g = new Game(); 
-		
-		awesome.init();
-		
-		g.addPlayer(awesome);
-		g.addPlayer(EA);
-		for(int h = 2; h < numberofbots; h++){
-			g.addPlayer(new RandomAgent()); 
-		}
-		
-		g.setup(); 
-		boolean reswin = g.play(); 
-		
-		if(reswin && !EA.isspy()){
-			EAwins++;
-		}
-		if(!reswin && EA.isspy()){
-			EAwins++; 
-		}
-		if(reswin && !awesome.isspy()){
-			GAwins++;
-		}
-		if(!reswin && awesome.isspy()){
-			GAwins++; 
-		}
-		}
-	    System.out.println("EAwins" + EAwins);
-	    System.out.println("GAwins" + GAwins); 
-
+    Tournament t = new Tournament();
+    t.addSeat("GAgent", new AgentFactory.Genetic(new Genome(1, initialparam)));
+    t.addSeat("PinguBot", AgentFactory.PINGU);
+    t.setFill("RandomAgent", AgentFactory.RANDOM);
+    runsim(t);
   }
   /*
    * Runs a simulation involving one GAgent and all Eagents. 
    */
   public static void runsim2(){
-	 
-		int GAwins = 0;
-	  int numberofgames = 10000; 
-		
-		Random r = new Random(); 
-		double[] initialparam = {16.514,0.3537,0.3274,0.2776,38.449,67.295,79.52};
-		int numberofbots = r.nextInt(6) + 5;
-		GAgent awesome = new GAgent(1);
-		
-		awesome.init();
-		awesome.get_thresholds(initialparam); 
-		for(int i = 0; i < numberofgames;i++){
-		Game g = new Game(); 
-		
-		awesome.init();
-		
-		g.addPlayer(awesome);
-	
-		for(int h = 1; h < numberofbots; h++){
-			PinguBot EA = new PinguBot(); 
-			g.addPlayer(EA); 
-		}
-		
-		g.setup(); 
-		boolean reswin = g.play(); 
-		
-		
-		if(reswin && !awesome.isspy()){
-			GAwins++;
-		}
-		if(!reswin && awesome.isspy()){
-			GAwins++; 
-		}
-		}
-	  
-	    System.out.println("GAvsEA" + GAwins); 
-
+    Tournament t = new Tournament();
+    t.addSeat("GAgent", new AgentFactory.Genetic(new Genome(1, initialparam)));
+    t.setFill("PinguBot", AgentFactory.PINGU);
+    runsim(t);
   }
   /*
    *Gagent vs all random 
    */
   public static void runsim3(){
-		 
-		int GAwins = 0;
-	  int numberofgames = 10000; 
-		
-		Random r = new Random(); 
-		double[] initialparam = {16.514,0.3537,0.3274,0.2776,38.449,67.295,79.52};
-		int numberofbots = r.nextInt(6) + 5;
-		GAgent awesome = new GAgent(1);
-		
-		awesome.init();
-		awesome.get_thresholds(initialparam); 
-		for(int i = 0; i < numberofgames;i++){
-		Game g = new Game(); 
-		
-		awesome.init();
-		
-		g.addPlayer(awesome);
-	
-		for(int h = 1; h < numberofbots; h++){
-			
-			g.addPlayer(new RandomAgent()); 
-		}
-		
-		g.setup(); 
-		boolean reswin = g.play(); 
-		
-		
-		if(reswin && !awesome.isspy()){
-			GAwins++;
-		}
-		if(!reswin && awesome.isspy()){
-			GAwins++; 
-		}
-		}
-	  
-	    System.out.println("Agent vs Random bots, Wins: " + GAwins); 
-
-}
+    Tournament t = new Tournament();
+    t.addSeat("GAgent", new AgentFactory.Genetic(new Genome(1, initialparam)));
+    t.setFill("RandomAgent", AgentFactory.RANDOM);
+    runsim(t);
+  }
   public static void main(String[] args){
 
 		runsim3(); 
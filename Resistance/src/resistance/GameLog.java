@@ -0,0 +1,184 @@
+package resistance;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.io.*;
+
+/**
+ * A log file shared by any number of games.
+ *
+ * Each log keeps its file open, and records handed to it are queued and written in batches by a background thread,
+ * so a game seldom waits on the disk. A record is written whole, so games running at the same time can share a log
+ * without their lines being mixed together. Logs are flushed and closed when the JVM shuts down.
+ *
+ * The queue holds at most CAPACITY records, and a game writing to a full queue waits for the writer to catch up,
+ * so games faster than the disk cannot fill the heap. If the file cannot be written the writer stops, the records
+ * still queued are lost, and the error is thrown by the next write or close.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class GameLog implements Runnable{
+
+	private static final Map<String,GameLog> logs = new HashMap<String,GameLog>(); //the open logs, by canonical path
+	private static boolean hooked = false; //whether the shutdown hook has been added
+
+	private static final String END = new String("end of log"); //queued by close, compared by identity, after which the writer stops
+	public static final int CAPACITY = 4096; //the most records queued at once
+
+	private final String path;
+	private final Writer out;
+	private final BlockingQueue<String> queue = new ArrayBlockingQueue<String>(CAPACITY);
+	private final Thread writer;
+	private final Object submit = new Object(); //held while a record is queued, so no record is queued after END
+	private boolean closed = false; //guarded by submit
+	private long submitted = 0; //the number of records queued, guarded by this
+	private long written = 0; //the number of records written to the file, guarded by this
+	private volatile IOException failure; //the error that stopped the writer, or null
+
+	private GameLog(String path) throws IOException{
+		this.path = path;
+		out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(path, true), "UTF-8"), 1<<16);
+		writer = new Thread(this, "GameLog "+path);
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Gets the log for a file, opening it in append mode if no game has used it yet.
+	 * @param fName path to the log file
+	 * @return the log writing to the file
+	 * @throws IOException if the file cannot be opened
+	 */
+	public static synchronized GameLog open(String fName) throws IOException{
+		String path = new File(fName).getCanonicalPath();
+		GameLog log = logs.get(path);
+		if(log == null){
+			if(!hooked){
+				Runtime.getRuntime().addShutdownHook(new Thread(new Runnable(){
+					public void run(){ closeAll(); }
+				}));
+				hooked = true;
+			}
+			log = new GameLog(path);
+			logs.put(path, log);
+		}
+		return log;
+	}
+
+	/**
+	 * Queues a record to be written, waiting while the queue is full. The record is written as given, so it should end with a new line.
+	 * @param record the text to write
+	 * @throws IOException if the writer has stopped because the file could not be written
+	 */
+	public void write(String record) throws IOException{
+		synchronized(submit){
+			if(closed) throw new IllegalStateException("Log closed: "+path);
+			enqueue(record);
+		}
+		synchronized(this){ submitted++; }
+	}
+
+	/**
+	 * Puts a record on the queue, waiting while it is full unless the writer has failed.
+	 * @throws IOException if the writer has failed
+	 */
+	private void enqueue(String record) throws IOException{
+		try{
+			while(true){
+				if(failure != null) throw failure;
+				if(queue.offer(record, 100, TimeUnit.MILLISECONDS)) return;
+			}
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted writing to "+path);
+		}
+	}
+
+	/**
+	 * Waits until every record queued so far has been written to the file.
+	 */
+	public synchronized void flush(){
+		long target = submitted;
+		try{
+			while(written < target && writer.isAlive()) wait(100);
+		}catch(InterruptedException e){Thread.currentThread().interrupt();}
+	}
+
+	/**
+	 * Flushes the log and closes its file. Records can no longer be written to it.
+	 * The writer is stopped by queueing END behind every record, so it writes them all before it stops.
+	 * @throws IOException if the writer stopped because the file could not be written
+	 */
+	public void close() throws IOException{
+		synchronized(GameLog.class){ logs.remove(path); }
+		synchronized(submit){
+			if(closed) return;
+			closed = true;
+			if(failure == null) enqueue(END);
+		}
+		try{
+			writer.join();
+		}catch(InterruptedException e){Thread.currentThread().interrupt();}
+		if(failure != null) throw failure;
+	}
+
+	/**
+	 * Flushes every open log.
+	 */
+	public static void flushAll(){
+		for(GameLog log : openLogs()) log.flush();
+	}
+
+	/**
+	 * Flushes and closes every open log.
+	 */
+	public static void closeAll(){
+		for(GameLog log : openLogs()){
+			try{
+				log.close();
+			}catch(IOException e){e.printStackTrace();}
+		}
+	}
+
+	private static synchronized List<GameLog> openLogs(){
+		return new ArrayList<GameLog>(logs.values());
+	}
+
+	/**
+	 * Writes queued records in batches until it reaches END.
+	 */
+	public void run(){
+		List<String> batch = new ArrayList<String>();
+		boolean end = false;
+		try{
+			while(!end){
+				try{
+					batch.add(queue.take());
+				}catch(InterruptedException e){
+					continue;
+				}
+				queue.drainTo(batch);
+				int records = 0;
+				for(String record : batch){
+					if(record == END){
+						end = true;
+						break;
+					}
+					out.write(record);
+					records++;
+				}
+				out.flush();
+				synchronized(this){
+					written += records;
+					notifyAll();
+				}
+				batch.clear();
+			}
+		}catch(IOException e){
+			failure = e;
+		}finally{
+			try{ out.close(); }catch(IOException e){if(failure == null) failure = e;}
+			synchronized(this){ notifyAll(); }
+		}
+	}
+}
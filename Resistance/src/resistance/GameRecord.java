@@ -0,0 +1,319 @@
+package resistance;
+
+import java.io.*;
+
+/**
+ * A compact record of everything that happened in one game.
+ *
+ * The record holds the game's seed, number of players, spies and result, the kind of agent in each seat, and for every round
+ * each nomination (leader and team), the votes on it, and which spies betrayed the mission. Sets of players are bitmasks as in FastAgent.
+ *
+ * An agent's kind is its index in KINDS, the bundled agents by class name, with 0 for any other agent.
+ * Only the kind is kept: a GAgent's genome and an agent's seed are not, so a replay needs the caller to supply them.
+ *
+ * A record is stored in 21 bytes plus 1 byte for each seat and 3 bytes for each nomination, usually under 60 bytes a game:
+ * <pre>
+ *  long   seed
+ *  byte   number of players, with the top bit set if the resistance won
+ *  short  spies
+ *  p x byte    for each seat, the kind of agent in it
+ *  5 x short   for each round, the number of nominations (bits 0-2) and the spies who betrayed (bits 3-12)
+ *  n x 3 bytes for each nomination, the leader (bits 0-3), the team (bits 4-13) and the yes votes (bits 14-23)
+ * </pre>
+ * A record can be replayed into agents, giving them the same reports the game gave its players.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class GameRecord {
+
+	public static final int ROUNDS = 5;
+	public static final int NOMINATIONS = 6; //the most nominations in a round: five that are voted down and one that goes without a vote
+	public static final String[] KINDS = {"other", "RandomAgent", "PinguBot", "GAgent", "PotatoBot"}; //the agents a record can name, by class name
+
+	private long seed;
+	private int players;
+	private int spies;
+	private boolean resistancewin;
+	private final int[] kinds = new int[10]; //kinds[i] is the index in KINDS of the agent in seat i
+	private final int[] nominations = new int[ROUNDS]; //the number of nominations in each round
+	private final int[] betrayals = new int[ROUNDS]; //the spies who betrayed each mission
+	private final int[] leaders = new int[ROUNDS*NOMINATIONS]; //leaders[round*NOMINATIONS+n] is the leader of nomination n of the round
+	private final int[] teams = new int[ROUNDS*NOMINATIONS];
+	private final int[] votes = new int[ROUNDS*NOMINATIONS];
+
+	/**
+	 * Clears the record for a new game.
+	 * @param seed the seed of the game
+	 * @param players the number of players
+	 * @param spies the spies
+	 */
+	void start(long seed, int players, int spies){
+		this.seed = seed;
+		this.players = players;
+		this.spies = spies;
+		resistancewin = false;
+		for(int i = 0; i < kinds.length; i++) kinds[i] = 0;
+		for(int r = 0; r < ROUNDS; r++){
+			nominations[r] = 0;
+			betrayals[r] = 0;
+		}
+	}
+
+	/**
+	 * @param name the simple name of an agent's class
+	 * @return the index of the agent's kind in KINDS, 0 if it is not one of the bundled agents
+	 */
+	public static int kind(String name){
+		for(int k = 1; k < KINDS.length; k++){
+			if(KINDS[k].equals(name)) return k;
+		}
+		return 0;
+	}
+
+	/**
+	 * Records the kind of agent in a seat.
+	 * @param seat the seat
+	 * @param kind the index of the agent's kind in KINDS
+	 */
+	void seated(int seat, int kind){
+		kinds[seat] = kind;
+	}
+
+	/**
+	 * Records a nomination.
+	 * @param round the round, from 1
+	 * @param leader the leader who made the nomination
+	 * @param team the team nominated
+	 */
+	void nominated(int round, int leader, int team){
+		int i = (round-1)*NOMINATIONS + nominations[round-1]++;
+		leaders[i] = leader;
+		teams[i] = team;
+		votes[i] = 0;
+	}
+
+	/**
+	 * Records the vote on the latest nomination.
+	 * @param round the round, from 1
+	 * @param yays the players who voted for the team
+	 */
+	void voted(int round, int yays){
+		votes[(round-1)*NOMINATIONS + nominations[round-1]-1] = yays;
+	}
+
+	/**
+	 * Records the spies who betrayed a mission.
+	 * @param round the round, from 1
+	 * @param betrayers the spies who betrayed
+	 */
+	void betrayed(int round, int betrayers){
+		betrayals[round-1] = betrayers;
+	}
+
+	/**
+	 * Records the result of the game.
+	 * @param resistancewin true if the resistance won
+	 */
+	void finished(boolean resistancewin){
+		this.resistancewin = resistancewin;
+	}
+
+	public long getSeed(){ return seed; }
+	public int getPlayers(){ return players; }
+	public int getSpies(){ return spies; }
+	public boolean resistanceWon(){ return resistancewin; }
+
+	/**
+	 * @param seat the seat
+	 * @return the index in KINDS of the kind of agent in the seat
+	 */
+	public int getKind(int seat){ return kinds[seat]; }
+
+	/**
+	 * @param round the round, from 1
+	 * @return the number of nominations made in the round
+	 */
+	public int getNominations(int round){ return nominations[round-1]; }
+
+	/**
+	 * @param round the round, from 1
+	 * @param n the nomination, from 0
+	 * @return the leader who made the nomination
+	 */
+	public int getLeader(int round, int n){ return leaders[(round-1)*NOMINATIONS+n]; }
+
+	/**
+	 * @param round the round, from 1
+	 * @param n the nomination, from 0
+	 * @return the team nominated
+	 */
+	public int getTeam(int round, int n){ return teams[(round-1)*NOMINATIONS+n]; }
+
+	/**
+	 * @param round the round, from 1
+	 * @param n the nomination, from 0
+	 * @return the players who voted for the nomination. The sixth nomination of a round is not voted on.
+	 */
+	public int getVotes(int round, int n){ return votes[(round-1)*NOMINATIONS+n]; }
+
+	/**
+	 * @param round the round, from 1
+	 * @return the team sent on the round's mission
+	 */
+	public int getMission(int round){ return getTeam(round, nominations[round-1]-1); }
+
+	/**
+	 * @param round the round, from 1
+	 * @return the spies who betrayed the round's mission
+	 */
+	public int getBetrayals(int round){ return betrayals[round-1]; }
+
+	/**
+	 * Applies the rules of the game to decide if a mission failed.
+	 * @param round the round, from 1
+	 * @return true if the round's mission failed
+	 */
+	public boolean failed(int round){
+		int traitors = Integer.bitCount(betrayals[round-1]);
+		return traitors !=0 && (traitors !=1 || round !=4 || players<7);
+	}
+
+	/**
+	 * @return the number of bytes the record takes when written
+	 */
+	public int size(){
+		int n = 0;
+		for(int r = 0; r < ROUNDS; r++) n += nominations[r];
+		return 21 + players + 3*n;
+	}
+
+	/**
+	 * Writes the record in the compact binary format.
+	 * @param out the stream to write to
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void write(DataOutput out) throws IOException{
+		out.writeLong(seed);
+		out.writeByte(players | (resistancewin ? 0x80 : 0));
+		out.writeShort(spies);
+		for(int i = 0; i < players; i++) out.writeByte(kinds[i]);
+		for(int r = 0; r < ROUNDS; r++) out.writeShort(nominations[r] | betrayals[r]<<3);
+		for(int r = 0; r < ROUNDS; r++){
+			for(int n = 0; n < nominations[r]; n++){
+				int i = r*NOMINATIONS+n;
+				int packed = leaders[i] | teams[i]<<4 | votes[i]<<14;
+				out.writeByte(packed>>>16);
+				out.writeShort(packed);
+			}
+		}
+	}
+
+	/**
+	 * Reads a record written by write, replacing the contents of this record.
+	 * @param in the stream to read from
+	 * @return true if a record was read, false if the stream was already at its end
+	 * @throws IOException if the stream cannot be read or ends part way through a record
+	 */
+	public boolean read(DataInput in) throws IOException{
+		try{
+			seed = in.readLong();
+		}catch(EOFException e){return false;}
+		int b = in.readUnsignedByte();
+		players = b & 0x7f;
+		resistancewin = (b & 0x80) != 0;
+		spies = in.readUnsignedShort();
+		for(int i = 0; i < kinds.length; i++) kinds[i] = i < players ? in.readUnsignedByte() : 0;
+		for(int r = 0; r < ROUNDS; r++){
+			int s = in.readUnsignedShort();
+			nominations[r] = s & 7;
+			betrayals[r] = s>>>3;
+		}
+		for(int r = 0; r < ROUNDS; r++){
+			for(int n = 0; n < nominations[r]; n++){
+				int i = r*NOMINATIONS+n;
+				int packed = in.readUnsignedByte()<<16 | in.readUnsignedShort();
+				leaders[i] = packed & 0xf;
+				teams[i] = packed>>>4 & 0x3ff;
+				votes[i] = packed>>>14 & 0x3ff;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Replays the game into a set of agents, one for each seat, giving them the reports the game gave its players
+	 * in the same order. The agents are never asked for decisions; the recorded decisions are used instead.
+	 * This rebuilds the state an agent had at the end of the game, e.g. the suspicion of a GAgent.
+	 * @param agents the agents, indexed by seat
+	 */
+	public void replay(FastAgent[] agents){
+		int fails = 0;
+		status(agents, 1, fails);
+		for(int round = 1; round <= ROUNDS; round++){
+			for(int n = 0; n < nominations[round-1]; n++){
+				for(int i = 0; i < players; i++) agents[i].get_ProposedMission(getLeader(round, n), getTeam(round, n));
+				if(n < NOMINATIONS-1){
+					for(int i = 0; i < players; i++) agents[i].get_Votes(getVotes(round, n));
+				}
+			}
+			int traitors = Integer.bitCount(betrayals[round-1]);
+			for(int i = 0; i < players; i++) agents[i].get_Mission(getMission(round));
+			for(int i = 0; i < players; i++) agents[i].get_Traitors(traitors);
+			if(failed(round)) fails++;
+			status(agents, round+1, fails);
+		}
+	}
+
+	private void status(FastAgent[] agents, int round, int fails){
+		for(int i = 0; i < players; i++) agents[i].get_status(i, players, (spies & 1<<i) != 0 ? spies : 0, round, fails);
+	}
+
+	/**
+	 * Describes the game in the same words as the game log.
+	 * @return a description of the game, one event a line
+	 */
+	public String toString(){
+		StringBuilder sb = new StringBuilder();
+		sb.append("Seed: ").append(seed).append('\n');
+		sb.append(players).append(" players. Spies: ").append(Seats.names(spies)).append('\n');
+		for(int i = 0; i < players; i++) sb.append("Player ").append(Seats.name(i)).append(": ").append(KINDS[kinds[i]]).append('\n');
+		int fails = 0;
+		for(int round = 1; round <= ROUNDS; round++){
+			for(int n = 0; n < nominations[round-1]; n++){
+				sb.append(Seats.name(getLeader(round, n))).append(" nominated ").append(Seats.names(getTeam(round, n))).append('\n');
+				if(n < NOMINATIONS-1){
+					int v = getVotes(round, n);
+					sb.append(Integer.bitCount(v)).append(" votes for: ").append(Seats.names(v)).append('\n');
+				}
+			}
+			sb.append(Seats.names(getMission(round))).append(" elected\n");
+			int traitors = Integer.bitCount(betrayals[round-1]);
+			sb.append(traitors).append(traitors==1?" spy ":" spies ").append("betrayed the mission");
+			if(traitors > 0) sb.append(" (").append(Seats.names(betrayals[round-1])).append(')');
+			sb.append('\n');
+			if(failed(round)){
+				fails++;
+				sb.append("Mission failed\n");
+			}
+			else sb.append("Mission succeeded\n");
+		}
+		sb.append(resistancewin ? "Resistance Wins! " : "Government Wins! ").append(fails).append(" missions failed.\n");
+		return sb.toString();
+	}
+
+	/**
+	 * Prints every game in a record file.
+	 * @param args the path of the record file
+	 * @throws IOException if the file cannot be read
+	 */
+	public static void main(String[] args) throws IOException{
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(args[0])));
+		try{
+			GameRecord r = new GameRecord();
+			for(int game = 0; r.read(in); game++){
+				System.out.println("Game "+game);
+				System.out.println(r);
+			}
+		}finally{in.close();}
+	}
+}
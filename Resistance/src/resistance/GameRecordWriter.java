@@ -0,0 +1,49 @@
+package resistance;
+
+import java.io.*;
+
+/**
+ * Appends game records to a file. Games running at the same time may share a writer.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class GameRecordWriter implements Closeable{
+
+	private final DataOutputStream out;
+	private long games = 0;
+
+	/**
+	 * Opens a record file, adding to the end of it if it already exists.
+	 * @param fName path to the record file
+	 * @throws IOException if the file cannot be opened
+	 */
+	public GameRecordWriter(String fName) throws IOException{
+		out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fName, true), 1<<16));
+	}
+
+	/**
+	 * Appends a record to the file.
+	 * @param r the record of a finished game
+	 */
+	public synchronized void write(GameRecord r){
+		try{
+			r.write(out);
+			games++;
+		}catch(IOException e){e.printStackTrace();}
+	}
+
+	/**
+	 * @return the number of records written
+	 */
+	public synchronized long getGames(){
+		return games;
+	}
+
+	public synchronized void flush() throws IOException{
+		out.flush();
+	}
+
+	public synchronized void close() throws IOException{
+		out.close();
+	}
+}
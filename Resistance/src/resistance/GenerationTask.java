@@ -0,0 +1,64 @@
+package resistance;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A fork-join task that plays a range of the games of one generation of the genetic algorithm.
+ *
+ * Ranges larger than the leaf size are split in half and played in parallel.
+ * Each leaf plays its games with its own win/loss record, and the records are summed as the tasks are joined,
+ * so the result is the same wins and losses arrays that doGeneration would have built on one thread.
+ * Every game is seeded from its number, so the arrays are identical to the single threaded ones for the same seed.
+ * The genomes in each game are drawn from a list of candidates, which is every agent unless only some are still being raced.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+class GenerationTask extends RecursiveTask<double[][]>{
+
+	private static final long serialVersionUID = 1L;
+	private final GeneticAlg alg;
+	private final long generationseed; //the seed from which the seed of each game is derived
+	private final int from; //the first game of the range
+	private final int to; //one past the last game of the range
+	private final int leafsize; //the number of games below which the range is played on one thread
+	private final int[] candidates; //the agents that may be chosen to play, or null for every agent
+
+	/**
+	 * @param alg the genetic algorithm whose agents are playing
+	 * @param generationseed the seed of the generation
+	 * @param from the first game of the range
+	 * @param to one past the last game of the range
+	 * @param leafsize the number of games below which the range is no longer split
+	 * @param candidates the agents that may be chosen to play, or null for every agent
+	 */
+	GenerationTask(GeneticAlg alg, long generationseed, int from, int to, int leafsize, int[] candidates){
+		this.alg = alg;
+		this.generationseed = generationseed;
+		this.from = from;
+		this.to = to;
+		this.leafsize = leafsize;
+		this.candidates = candidates;
+	}
+
+	/**
+	 * Plays the range of games.
+	 * @return an array holding the wins (index 0) and losses (index 1) of every agent over the range.
+	 */
+	protected double[][] compute(){
+		if(to - from <= leafsize){
+			double[][] record = new double[2][alg.numberofagents];
+			alg.playRange(generationseed, from, to, candidates, record[0], record[1]);
+			return record;
+		}
+		int mid = (from + to) >>> 1;
+		GenerationTask left = new GenerationTask(alg, generationseed, from, mid, leafsize, candidates);
+		left.fork();
+		double[][] record = new GenerationTask(alg, generationseed, mid, to, leafsize, candidates).compute();
+		double[][] other = left.join();
+		for(int i = 0; i < alg.numberofagents; i++){
+			record[0][i] += other[0][i];
+			record[1][i] += other[1][i];
+		}
+		return record;
+	}
+}
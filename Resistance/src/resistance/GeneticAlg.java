@@ -1,16 +1,22 @@
 package resistance;
 
+import java.io.*;
+import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 
 /**
  * A java class to run the genetic algorithm. 
  * 
  *  For each new generation, the threshold values are altered according to genetic algorithm policies (done at the end of do_generation), 
- *  and new threshold values are given to agents via the get_thresholds method for the agent. 
+ *  and the new threshold values are made into genomes, from which an agent is created for every game played. 
  *  
  *   For each game, the win and loss record is updated for each agent, which is stored in a local variable of the do_generation method. 
  *   
+ *   A long run can write checkpoints as it goes (see setCheckpoint) and be continued from the last one with resume, 
+ *   giving the same result as if it had never stopped. 
+ *   
  * @author Jelyn Thong, Tianchi Ren
  * 
  *
@@ -20,17 +26,58 @@ public class GeneticAlg {
 /** 
  *  Global variables
  **/
- GAgent[] agents; 
- double[][] globalthresholds; //global variable holding threshold values for all agents. 
+ Genome[] genomes; //the genomes played this generation, rebuilt from population at the start of each generation
+ Population population; //global variable holding threshold values for all agents. 
  int finalsurvivor; 
  int numbgens;
  int numbgames; 
  int numbswaps;
  double range;
  Random rand; 
+ long seed; //the master seed from which every random number of the run is derived
  double bestwinloss; 
  final int numberofagents; //the number of agents to use 
  final double survivalrate;
+ int parallelism = 1; //number of worker threads used to play the games of a generation
+ ForkJoinPool pool; 
+ int racerounds = 0; //the number of rounds games are raced in, or 0 to play every game for every agent
+ double raceconfidence; //the confidence level at which agents are decided in a race
+ long gamesplayed = 0; //the number of games played over all generations
+ boolean balanced = false; //true to play each generation from a balanced MatchSchedule
+ MatchSchedule schedule; //the schedule of the current generation, or null if its players are drawn at random
+ int numbscenarios = 0; //the number of scenarios every agent plays each generation, or 0 to play random games
+ ScenarioBank bank; //the scenarios of the current generation, or null if it plays random games
+ Genome opponent; //the genome of the opponents in the scenarios of the current generation
+ double[] best; //the thresholds of the best agent of the last generation, copied before reproduction changed the population, or null before the first
+ Selection selection = new Selection.Truncation(); //chooses the survivors of each generation
+ int[] survivors; //the survivors of the current generation, reused every generation
+ int[] nonsurvivors; //the agents not among the survivors, in order, reused every generation
+ int numbnonsurvivors; 
+ boolean[] survived; //survived[i] is true if agent i is among the survivors
+ double[][] elite; //copies of the thresholds of the best agents of the last generation, best first, taken before reproduction
+ int[] worst; //the agents of the last generation that did not survive, worst first
+ int[] ranking; //every agent of the current generation, best first, reused every generation
+ int generation = 0; //the next generation to run
+ String checkpointfile; //the file checkpoints are written to, or null to write none
+ Migration migration; //exchanges agents with other islands, or null if the population is alone
+ FitnessCache cache; //the games already played by each threshold vector, or null to forget them every generation
+ Surrogate surrogate; //predicts the fitness of children before they are played, or null to play every child made
+ int oversample; //the number of children made for each one kept when the surrogate screens them
+ double[][] mutants; //the children made for one survivor when screening, reused every generation
+ double[] predicted; 
+ int[] mutantorder; 
+ int checkpointinterval; //the number of generations played between checkpoints
+ int batchsize = 0; //the most games played at once by a BatchGame, or 0 to play each game through a Game
+ //each thread's batches, kept between ranges and generations so a worker allocates them once
+ private final ThreadLocal<Batches> threadbatches = new ThreadLocal<Batches>(){
+	 protected Batches initialValue(){
+		 return new Batches(); 
+	 }
+ }; 
+ 
+ static final int PLAYSTEP = 500; //only every PLAYSTEP-th generation is played; the others leave the population as it was
+ private static final int CHECKPOINT_MAGIC = 0x47414350; //"GACP"
+ private static final int CHECKPOINT_VERSION = 6;
  /**
   * Constructor for randomised threshold values (30 +- 0.2) +- 0.2 for subsequent alterations. 
   * @param generations number of generations to run the algorithm for.
@@ -38,16 +85,27 @@ public class GeneticAlg {
   * @param swaps number of swaps to do for sexual reproduction
   */
  public GeneticAlg(int generations, int games, int swaps) {
+	 this(generations, games, swaps, new Random().nextLong()); 
+ }
+ /**
+  * Constructor for randomised threshold values (30 +- 0.2) +- 0.2 for subsequent alterations, whose run is reproduced exactly by its seed. 
+  * @param generations number of generations to run the algorithm for.
+  * @param games number of games to play per generation
+  * @param swaps number of swaps to do for sexual reproduction
+  * @param seed the master seed of the run
+  */
+ public GeneticAlg(int generations, int games, int swaps, long seed) {
 	 numberofagents = 100;
 	 survivalrate = 0.1; 
 	 bestwinloss = 0;
-	 rand = new Random(); 
-	 agents = new GAgent[numberofagents]; 
+	 this.seed = seed; 
+	 rand = new Random(seed); 
+	 genomes = new Genome[numberofagents]; 
 	 numbgens = generations;
 	 numbgames = games; 
 	 numbswaps = swaps;
-	 globalthresholds = new double[numberofagents][7];
-	 double[] temp = new double[7]; 
+	 population = new Population(Genome.SCHEMA, numberofagents);
+	 double[] temp = new double[population.getSchema().size()]; 
 	 Arrays.fill(temp, 0.2);
 	 generatethresholds(temp,0.2); 
 	 range = 0.2; 
@@ -63,76 +121,123 @@ public class GeneticAlg {
   * @param range	range for each subsequent generation as a percentage of their current value; 
   */
  public GeneticAlg(int generations, int games, int swaps, double[] initthresholds, double initrange, double range){
+	 this(generations, games, swaps, initthresholds, initrange, range, new Random().nextLong()); 
+ }
+ /**
+  * A constructor allowing specifications of the range of initial threshold values and also range of modification, 
+  * whose run is reproduced exactly by its seed, however many threads play the games. 
+  * @param generation generations number of generations to run the algorithm for.
+  * @param games number of games to play per generation
+  * @param swaps number of swaps to do for sexual reproduction
+  * @param initthresholds initial threshold values 
+  * @param initrange	initial range for the randomised threshold values
+  * @param range	range for each subsequent generation as a percentage of their current value; 
+  * @param seed the master seed of the run
+  */
+ public GeneticAlg(int generations, int games, int swaps, double[] initthresholds, double initrange, double range, long seed){
+	 this(Genome.SCHEMA, generations, games, swaps, initthresholds, initrange, range, seed); 
+ }
+ /**
+  * A constructor for a seeded run whose genes have their own bounds and mutation scales. 
+  * @param schema the genes of each agent, which must be the Genome.SIZE thresholds of a GAgent in order
+  * @param generations number of generations to run the algorithm for.
+  * @param games number of games to play per generation
+  * @param swaps number of swaps to do for sexual reproduction
+  * @param initthresholds initial threshold values 
+  * @param initrange	initial range for the randomised threshold values
+  * @param range	range for each subsequent generation as a percentage of their current value, multiplied by each gene's scale 
+  * @param seed the master seed of the run
+  */
+ public GeneticAlg(GenomeSchema schema, int generations, int games, int swaps, double[] initthresholds, double initrange, double range, long seed){
+	 checkSchema(schema); 
 	 numberofagents = 200;
 	 survivalrate = 0.1;
 	 bestwinloss = 0; 
-	 rand = new Random(); 
+	 this.seed = seed; 
+	 rand = new Random(seed); 
 	 numbgens = generations;
-	 agents = new GAgent[numberofagents]; 
+	 genomes = new Genome[numberofagents]; 
 	 numbgames = games; 
 	 numbswaps = swaps;
-	 globalthresholds = new double[numberofagents][7];
+	 population = new Population(schema, numberofagents);
 	 generatethresholds(initthresholds,initrange); 
 	 this.range = range; 
 	 
  }
+ /**
+  * Constructor for a run being resumed from a checkpoint, whose state is then read from the checkpoint. 
+  * @param agents the number of agents
+  * @param schema the genes of each agent
+  */
+ private GeneticAlg(int agents, GenomeSchema schema){
+	 numberofagents = agents;
+	 survivalrate = 0.1;
+	 genomes = new Genome[numberofagents]; 
+	 population = new Population(schema, numberofagents);
+ }
+ /**
+  * Checks that a schema describes genes a GAgent can play: the agents are played through Genome and BatchGame, 
+  * which hold exactly Genome.SIZE thresholds, so a schema can change their bounds and scales but not their number. 
+  * @param schema the schema
+  */
+ static void checkSchema(GenomeSchema schema){
+	 if(schema.size() != Genome.SIZE) throw new IllegalArgumentException("A GAgent has " + Genome.SIZE + " thresholds, not " + schema.size()); 
+ }
  /**
   * A method to generate threshold values to be used by this generation of agents. 
   * @param initthresholds initial base threshold values
   * @param initrange the range by which the base threshold values can vary
   */
 private void generatethresholds(double[] initthresholds, double initrange){
-	for(int i = 0 ;i < globalthresholds.length; i++){
-		for(int j = 0; j < globalthresholds[0].length; j++){
-			globalthresholds[i][j] = initthresholds[j] - initrange*globalthresholds[i][j] + initrange * 2 * rand.nextDouble()*globalthresholds[i][j]; //initialises a range of initial thresholds based on the given parameters. 
-		} 
-	}
+	population.spread(initthresholds, initrange, rand); //initialises a range of initial thresholds based on the given parameters. 
 }
 /**
  * A method to generate a new population based on the best survivors from the previous population. 
  * For each of the survivors, new agents(thresholds) will be made to refill the population to the same value. 
- * @param survivors hashset containing the IDs of the agents that survived
- * @param nonsurvivors hashset containing the IDs of the agents that didn't survive
+ * @param survivors the IDs of the agents that survived, in the order they were chosen
+ * @param numbsurvivors the number of survivors
+ * @param nonsurvivors the IDs of the agents that didn't survive, which are replaced in order
  * @param coolingfactor as the generation progress we want to limit randomness of new child agents. 
  */
 
-private void doReproduce(HashSet<Integer> survivors,HashSet<Integer> nonsurvivors, double coolingfactor ){
-	Iterator<Integer> it = nonsurvivors.iterator(); 
-	for(Integer ID : survivors){
-		for(int i = 1 ; i < (1/survivalrate)-1;i++){
-		int nonsurvivor = it.next(); 
-		for(int j = 0; j < globalthresholds[0].length; j++){	
-		double newval = globalthresholds[ID][j] - coolingfactor*range*globalthresholds[ID][j] + coolingfactor * range * 2 * rand.nextDouble() * globalthresholds[ID][j];
-		globalthresholds[nonsurvivor][j] = newval; 
-		}
+private void doReproduce(int[] survivors, int numbsurvivors, int[] nonsurvivors, double coolingfactor ){
+	int children = (int) Math.ceil((1/survivalrate)-1) - 1; //the number of children of each survivor
+	if(surrogate == null || surrogate.size() == 0 || oversample <= 1){
+		population.mutate(survivors, numbsurvivors, nonsurvivors, children, coolingfactor*range, rand); 
+		return; 
 	}
+	//makes oversample times as many children as needed and keeps those the surrogate predicts to be fittest
+	int made = children*oversample; 
+	if(mutants == null || mutants.length != made){
+		mutants = new double[made][population.getSchema().size()]; 
+		predicted = new double[made]; 
+		mutantorder = new int[made]; 
+	}
+	for(int s = 0; s < numbsurvivors; s++){
+		for(int c = 0; c < made; c++){
+			population.mutant(survivors[s], coolingfactor*range, rand, mutants[c]); 
+			predicted[c] = surrogate.predict(mutants[c]); 
+			mutantorder[c] = c; 
+		}
+		Selection.top(mutantorder, made, children, predicted); 
+		for(int c = 0; c < children; c++){
+			population.set(nonsurvivors[s*children + c], mutants[mutantorder[c]]); 
+		}
 	}
 }
 /**
  * randomly swaps values of two agents for the number of times specified by the constructor
  */
 private void doSwaps(){
-	for(int iteration = 0 ; iteration < numbswaps ; iteration++){
-		int agent1 = rand.nextInt(numberofagents); 
-		int agent2 = rand.nextInt(numberofagents); 
-		int parameter = rand.nextInt(7); 
-		double temp = globalthresholds[agent1][parameter]; 
-		globalthresholds[agent1][parameter] = globalthresholds[agent2][parameter]; 
-		globalthresholds[agent2][parameter] = temp; 
-	}
+	population.swap(numbswaps, rand); 
 }
 /**
  * Performs the genetic algorithm by running multiple generations and seeing which agent turns out the best. 
  * @return returns the array of threshold values of the most successful agent. 
  */
 public double[] doGeneticAlg(){
-	for(int agentnumb = 0; agentnumb < numberofagents; agentnumb++){
-		agents[agentnumb] = new GAgent(agentnumb); 
-	}
-	//creates instances of new agents
-	
-	int bestofgen = 0; 
-for(int i = 0; i < numbgens; i++){
+	int bestofgen = finalsurvivor; 
+for(int i = generation; i < numbgens; i++){
 	double coolingfactor =  Math.exp(-i/numbgens); 
 			
 			
@@ -140,86 +245,94 @@ for(int i = 0; i < numbgens; i++){
 	if(i%500 == 0){
 		System.out.println("Generation" + i);
 		System.out.println("Bestwinloss" + bestwinloss);
-		for (int a = 0 ; a < globalthresholds[0].length; a++){
-			System.out.println(a + ": " + globalthresholds[finalsurvivor][a]); 
+		for (int a = 0 ; a < population.getSchema().size(); a++){
+			System.out.println(a + ": " + population.get(finalsurvivor, a)); 
 	}
-	bestofgen = doGeneration(coolingfactor); 
 	}
+	boolean play = i%PLAYSTEP == 0; 
+	if(play) bestofgen = doGeneration(i, coolingfactor); 
 	finalsurvivor = bestofgen; //the final survivor is the best agent from the last generation played
-	
+	generation = i+1; 
+	//migrations and checkpoints are counted in generations played, as the others change nothing
+	if(play && migration != null) migration.generationDone(this, played(generation)); 
+	if(checkpointfile != null && (play && played(generation) % checkpointinterval == 0 || generation == numbgens)){
+		try{
+			saveCheckpoint(checkpointfile); 
+		}catch(IOException e){e.printStackTrace();}
+	}
 		
 }
 System.out.println("Best agent was agent" + finalsurvivor);
-for (int a = 0 ; a < globalthresholds[0].length; a++){
-	System.out.println(globalthresholds[finalsurvivor][a]); 
+for (int a = 0 ; a < population.getSchema().size(); a++){
+	System.out.println(population.get(finalsurvivor, a)); 
 	
 	
 }
 System.out.println(this.bestwinloss);
-return globalthresholds[finalsurvivor]; 
+System.out.println("Games played: " + gamesplayed);
+if(cache != null) System.out.println("Fitness cache hit rate: " + cache.getHitRate());
+return population.get(finalsurvivor); 
+}
+/**
+ * @param generation the number of a generation
+ * @return the number of generations played before it
+ */
+static int played(int generation){
+	return (generation + PLAYSTEP - 1)/PLAYSTEP; 
 }
 /**
  * A method for performing one generation of the algorithm.
  * 
+ * @param generation the number of the generation, from which the seeds of its games are derived. 
  * @param coolingfactor the cooling factor value for this generation.
  * @return returns the ID of the best agent of the generation. 
  */
-private int doGeneration(double coolingfactor){
+private int doGeneration(int generation, double coolingfactor){
+	long generationseed = Seeds.derive(seed, generation); 
 	double[] wins = new double[numberofagents];
 	double[] losses = new double[numberofagents];
 	double[] winloss = new double[numberofagents]; 
 	Arrays.fill(wins, 0); Arrays.fill(losses, 0); Arrays.fill(winloss, 0);
-	
-	
-	for(int game = 0; game < numbgames; game++){
-		boolean resistancewin; 
-		Game g = new Game(); 
-		
-	
+	for(int agent = 0; agent < numberofagents; agent++){
+		genomes[agent] = new Genome(agent, population.get(agent));
+	}
+	double[] priorwins = null, priorlosses = null; 
+	if(cache != null){
+		//every agent starts from the games its thresholds have already played
+		priorwins = new double[numberofagents]; 
+		priorlosses = new double[numberofagents]; 
 		for(int agent = 0; agent < numberofagents; agent++){
-			agents[agent].init();
-			agents[agent].get_thresholds(globalthresholds[agent]);
-								}
-		
-		
-		//this block generates a random number of players between 5 and 10 and adds them to the game. 
-		int numberofplayers = rand.nextInt(6) + 5; 
-		HashSet<Integer> players = new HashSet<Integer>();
-		
-		//half the players are expert agents.
-		int numberofexperts = numberofplayers/2; 
-		for(int e = 0; e < numberofexperts;e++){
-			g.addPlayer(new PinguBot());
-		}
-		for(int n = 0; n < numberofplayers-numberofexperts; n++){
-			int p = rand.nextInt(numberofagents); 
-			while(players.contains(p)){
-				p = rand.nextInt(numberofagents); 
+			FitnessCache.Entry e = cache.get(genomes[agent].thresholds(), generation); 
+			if(e != null){
+				wins[agent] = priorwins[agent] = e.getWins(); 
+				losses[agent] = priorlosses[agent] = e.getLosses(); 
 			}
-			players.add(p); 
-			g.addPlayer(agents[p]);
 		}
-		g.setup(); 
-		resistancewin = g.play();
-		
-		  
-		
+	}
 	
-		// at the end of each game determines whether resistance has won, and updates win/loss record accordingly. 
-		if(resistancewin){
-			for(int j : players){
-				if(agents[j].isspy()){
-					losses[j] ++; 
-				}
-				else wins[j]++; 
-			}
-		}
-		else {
-			for(int j : players){
-				if(agents[j].isspy()) wins[j]++;
-				else losses[j]++; 	
-				
-			}
+	int[] decided = null; 
+	if(racerounds > 0){
+		decided = race(generationseed, wins, losses); 
+	}
+	else if(numbscenarios > 0){
+		//every agent plays every scenario, against the best agent of the last generation as it was when it was ranked
+		bank = new ScenarioBank(numbscenarios, new Random(Seeds.derive(generationseed, -2))); 
+		opponent = best == null ? genomes[finalsurvivor] : new Genome(finalsurvivor, best); 
+		playGames(generationseed, 0, numbscenarios*numberofagents, null, wins, losses); 
+		bank = null; 
+	}
+	else if(balanced){
+		schedule = new MatchSchedule(numberofagents, numbgames, new Random(Seeds.derive(generationseed, -1))); 
+		playGames(generationseed, 0, schedule.getGames(), null, wins, losses); 
+		schedule = null; 
+	}
+	else {
+		playGames(generationseed, 0, numbgames, null, wins, losses); 
+	}
+	if(cache != null){
+		//adds the games of this generation only, so agents with the same thresholds each add their own
+		for(int agent = 0; agent < numberofagents; agent++){
+			cache.add(genomes[agent].thresholds(), wins[agent]-priorwins[agent], losses[agent]-priorlosses[agent], generation); 
 		}
 	}
 	//calculates winloss for every agent
@@ -233,40 +346,654 @@ private int doGeneration(double coolingfactor){
 		}
 	}
 	this.bestwinloss = bestwinloss; 
-	
-	//searches through winloss for the top 1/10 agents; 
-	HashSet<Integer> survivors = new HashSet<Integer>(); 
-	for(int count = 0; count < (int) numberofagents*survivalrate; count++){
-		int best = 0; 
-		double bestwl = 0;
-		for(int i = 0; i < numberofagents; i ++){
-			if(winloss[i] > bestwl && !survivors.contains(i)){
-				best = i;
-				bestwl = winloss[i]; 
-			}
+	best = population.get(bestagent); //doReproduce and doSwaps may overwrite or change the best agent's slot
+	if(surrogate != null){
+		//adds only the games played this generation, as the cache's earlier games were added in the generations that played them
+		for(int agent = 0; agent < numberofagents; agent++){
+			double newwins = wins[agent] - (priorwins == null ? 0 : priorwins[agent]); 
+			double newgames = newwins + losses[agent] - (priorlosses == null ? 0 : priorlosses[agent]); 
+			surrogate.add(genomes[agent].thresholds(), newwins/newgames, newgames); 
 		}
-		survivors.add(best);
 	}
-	//fills the hashset of nonsurvivors; 
-	HashSet<Integer> nonsurvivors = new HashSet<Integer>(); 
-	for(int i = 0; i < numberofagents; i++){
-		if(!survivors.contains(i)){
-			nonsurvivors.add(i); 
+	if(decided != null){
+		//agents found to be survivors rank above every undecided agent, and agents ruled out are never chosen. 
+		for(int i = 0; i < numberofagents; i++){
+			if(decided[i] > 0) winloss[i] += 2; 
+			else if(decided[i] < 0) winloss[i] = -1; 
 		}
 	}
+	
+	//chooses the top 1/10 agents, or as many by another selection strategy. 
+	int numbsurvivors = (int) (numberofagents*survivalrate); 
+	if(survivors == null){
+		survivors = new int[numbsurvivors]; 
+		nonsurvivors = new int[numberofagents]; 
+		survived = new boolean[numberofagents]; 
+	}
+	selection.select(winloss, numberofagents, numbsurvivors, rand, survivors); 
+	//fills the array of nonsurvivors; 
+	Arrays.fill(survived, false); 
+	for(int s = 0; s < numbsurvivors; s++) survived[survivors[s]] = true; 
+	numbnonsurvivors = 0; 
+	for(int i = 0; i < numberofagents; i++){
+		if(!survived[i]) nonsurvivors[numbnonsurvivors++] = i; 
+	}
+	rank(winloss, numbsurvivors); 
 	//generates the new generation of thresholds. 
-	doReproduce(survivors,nonsurvivors,coolingfactor);
+	doReproduce(survivors,numbsurvivors,nonsurvivors,coolingfactor);
 	doSwaps(); 
 	
 	return bestagent; 
 }
-public static void main(String[] args){
+/**
+ * Keeps the ranking of a generation for migration, before reproduction and swaps change the population: 
+ * copies of the best agents' thresholds, and the agents that did not survive from the worst up. 
+ * @param fitness the fitness the survivors were selected on
+ * @param numbsurvivors the number of survivors
+ */
+private void rank(double[] fitness, int numbsurvivors){
+	if(ranking == null) ranking = new int[numberofagents]; 
+	for(int i = 0; i < numberofagents; i++) ranking[i] = i; 
+	Selection.sort(ranking, 0, numberofagents, fitness); 
+	elite = new double[numbsurvivors][]; 
+	for(int m = 0; m < numbsurvivors; m++) elite[m] = population.get(ranking[m]); 
+	worst = new int[numbnonsurvivors]; 
+	int w = 0; 
+	for(int i = numberofagents-1; i >= 0; i--){
+		if(!survived[ranking[i]]) worst[w++] = ranking[i]; 
+	}
+}
+/**
+ * Plays a range of the games of a generation, on the pool if there is one, adding their results to the win/loss record. 
+ * @param generationseed the seed of the generation
+ * @param from the first game of the range
+ * @param to one past the last game of the range
+ * @param candidates the agents that may be chosen to play, or null for every agent
+ * @param wins the win record to update
+ * @param losses the loss record to update
+ */
+private void playGames(long generationseed, int from, int to, int[] candidates, double[] wins, double[] losses){
+	if(parallelism > 1){
+		//plays the games across the pool, each worker keeping its own win/loss record which are summed at the end.
+		double[][] record = pool.invoke(new GenerationTask(this, generationseed, from, to, leafSize(to-from), candidates));
+		for(int i = 0; i < numberofagents; i++){
+			wins[i] += record[0][i];
+			losses[i] += record[1][i]; 
+		}
+	}
+	else playRange(generationseed, from, to, candidates, wins, losses); 
+	gamesplayed += to - from; 
+}
+/**
+ * The number of games below which a range is played on one worker. The games are split into about eight leaves a worker
+ * to balance the load, but with batches a leaf sorts its games into a batch for each of the six numbers of players, 
+ * so a leaf is made big enough to fill each batch, up to an even share of the games for each worker so that none is left idle. 
+ * @param games the number of games in the range
+ * @return the leaf size
+ */
+int leafSize(int games){
+	int leaf = games/(parallelism*8); 
+	if(batchsize > 0) leaf = Math.max(leaf, Math.min(batchsize*6, (games + parallelism - 1)/parallelism)); 
+	return Math.max(1, leaf); 
+}
+/**
+ * Plays a range of the games of a generation on the calling thread, in batches if a batch size is set. 
+ * The thread's batches are reused, so only the first range a thread plays with a batch size allocates them. 
+ * @param generationseed the seed of the generation
+ * @param from the first game of the range
+ * @param to one past the last game of the range
+ * @param candidates the agents that may be chosen to play, or null for every agent
+ * @param wins the win record to update
+ * @param losses the loss record to update
+ */
+void playRange(long generationseed, int from, int to, int[] candidates, double[] wins, double[] losses){
+	if(batchsize <= 0){
+		for(int game = from; game < to; game++){
+			playGame(generationseed, game, candidates, wins, losses); 
+		}
+		return; 
+	}
+	//games are sorted into a batch for each number of players, each played once it is full
+	Batches thread = threadbatches.get(); 
+	BatchGame[] batches = thread.games; 
+	int[][] counted = thread.counted; 
+	int[] games = new int[6]; 
+	int[] agents = new int[10]; 
+	for(int game = from; game < to; game++){
+		long gameseed = Seeds.derive(generationseed, game); 
+		int numberofplayers; 
+		int spies = 0; 
+		int scenario = -1; 
+		if(bank != null){
+			scenario = game%numbscenarios; 
+			numberofplayers = bank.getPlayers(scenario); 
+			gameseed = bank.getSeed(scenario); 
+			spies = bank.getSpies(scenario); 
+		}
+		else if(schedule != null){
+			numberofplayers = schedule.getPlayers(game); 
+			System.arraycopy(schedule.getAgents(game), 0, agents, 0, numberofplayers - numberofplayers/2); 
+			spies = schedule.getSpies(game); 
+		}
+		else numberofplayers = drawPlayers(new Random(gameseed), candidates, agents); 
+		
+		int b = numberofplayers - 5; 
+		if(batches[b] == null || batches[b].getCapacity() != batchsize){
+			batches[b] = new BatchGame(batchsize); 
+			batches[b].setPlayers(numberofplayers); 
+			for(int seat = 0; seat < numberofplayers; seat++) batches[b].setSeat(seat, seat < numberofplayers/2 ? BatchGame.Kind.PINGU : BatchGame.Kind.GENETIC); 
+			counted[b] = new int[batches[b].getCapacity()*10]; 
+		}
+		BatchGame batch = batches[b]; 
+		int g = games[b]++; 
+		if(spies == 0) batch.setGame(g, gameseed); 
+		else batch.setGame(g, gameseed, spies); 
+		int numberofexperts = numberofplayers/2; 
+		for(int seat = numberofexperts; seat < numberofplayers; seat++){
+			int agent; 
+			if(scenario < 0) agent = agents[seat - numberofexperts]; 
+			else agent = seat == bank.getFocal(scenario) ? game/numbscenarios : -1; 
+			batch.setThresholds(g, seat, agent < 0 ? opponent.thresholds() : genomes[agent].thresholds()); 
+			counted[b][g*10 + seat] = agent; 
+		}
+		if(games[b] == batch.getCapacity()){
+			playBatch(batch, games[b], counted[b], wins, losses); 
+			games[b] = 0; 
+		}
+	}
+	for(int b = 0; b < 6; b++){
+		if(games[b] > 0) playBatch(batches[b], games[b], counted[b], wins, losses); 
+	}
+}
+/**
+ * Plays a batch of games and updates the win/loss record of the agents they count for. 
+ * @param batch the batch, with its games set
+ * @param count the number of games
+ * @param counted counted[g*10+seat] is the agent game g counts for in a seat, or -1
+ * @param wins the win record to update
+ * @param losses the loss record to update
+ */
+private void playBatch(BatchGame batch, int count, int[] counted, double[] wins, double[] losses){
+	batch.play(count); 
+	int numberofplayers = batch.getPlayers(); 
+	for(int g = 0; g < count; g++){
+		boolean resistancewin = batch.getResistanceWin(g); 
+		for(int seat = numberofplayers/2; seat < numberofplayers; seat++){
+			int agent = counted[g*10 + seat]; 
+			if(agent < 0) continue; 
+			if(batch.isSpy(g, seat) == resistancewin) losses[agent]++; 
+			else wins[agent]++; 
+		}
+	}
+}
+/**
+ * Plays one game of a generation, from the generation's schedule if it has one. 
+ * @param generationseed the seed of the generation
+ * @param game the number of the game
+ * @param candidates the agents that may be chosen to play, or null for every agent
+ * @param wins the win record to update
+ * @param losses the loss record to update
+ */
+void playGame(long generationseed, int game, int[] candidates, double[] wins, double[] losses){
+	if(bank != null){
+		int agent = game/numbscenarios; 
+		if(bank.play(game%numbscenarios, new AgentFactory.Genetic(genomes[agent]), opponent)) wins[agent]++; 
+		else losses[agent]++; 
+	}
+	else if(schedule != null) playScheduled(Seeds.derive(generationseed, game), game, wins, losses); 
+	else playGame(Seeds.derive(generationseed, game), candidates, wins, losses); 
+}
+/**
+ * Races the agents of a generation: the games are played in rounds, and after each round an agent is decided once the
+ * Wilson intervals of the win rates show it is surely among the survivors (enough agents are surely worse) or surely not
+ * (enough agents are surely better). Decided agents are no longer chosen to play, so later rounds are spent on the agents
+ * near the survival cut. Each round plays a share of numbgames in proportion to the agents still undecided, and the race
+ * ends early once every agent is decided. 
+ * An agent can only be wrongly decided if some interval misses its agent's win rate, and an interval is checked for every
+ * agent after every round, so the chance of error is split across all of them (see WinRate.z): with probability at least
+ * raceconfidence every interval in the race holds, and no agent is decided wrongly. 
+ * @param generationseed the seed of the generation
+ * @param wins the win record to update
+ * @param losses the loss record to update
+ * @return decided[i] is 1 if agent i is surely a survivor, -1 if it surely is not, and 0 if it is undecided
+ */
+private int[] race(long generationseed, double[] wins, double[] losses){
+	int[] decided = new int[numberofagents]; 
+	int survivors = (int) (numberofagents*survivalrate); 
+	double z = WinRate.z(raceconfidence, racerounds*numberofagents); 
+	double[] lower = new double[numberofagents]; 
+	double[] upper = new double[numberofagents]; 
+	int undecided = numberofagents; 
+	int game = 0; 
+	for(int round = 0; round < racerounds && undecided > 0; round++){
+		//the candidates are the undecided agents, topped up with decided ones so there are enough distinct agents for a game. 
+		int[] candidates = new int[Math.max(undecided, 5)]; 
+		int c = 0; 
+		for(int i = 0; i < numberofagents; i++) if(decided[i] == 0) candidates[c++] = i; 
+		for(int i = 0; c < candidates.length; i++) if(decided[i] != 0) candidates[c++] = i; 
+		int games = (int) Math.ceil((double) numbgames/racerounds*undecided/numberofagents); 
+		playGames(generationseed, game, game+games, candidates, wins, losses); 
+		game += games; 
+		
+		for(int i = 0; i < numberofagents; i++){
+			lower[i] = WinRate.lower(wins[i], wins[i]+losses[i], z); 
+			upper[i] = WinRate.upper(wins[i], wins[i]+losses[i], z); 
+		}
+		for(int i = 0; i < numberofagents; i++){
+			if(decided[i] != 0) continue; 
+			int better = 0, worse = 0; 
+			for(int j = 0; j < numberofagents; j++){
+				if(lower[j] > upper[i]) better++; 
+				else if(upper[j] < lower[i]) worse++; 
+			}
+			if(better >= survivors) decided[i] = -1; 
+			else if(worse >= numberofagents-survivors) decided[i] = 1; 
+		}
+		undecided = 0; 
+		for(int i = 0; i < numberofagents; i++) if(decided[i] == 0) undecided++; 
+	}
+	return decided; 
+}
+/**
+ * Plays a single game between PinguBots and randomly chosen agents and updates the win/loss record of the chosen agents. 
+ * Each chosen genome plays through a new agent, so the genomes can be shared between games running at the same time. 
+ * The choice of players, the game and every agent are seeded from the game's seed, so the game is the same on any thread. 
+ * @param gameseed the seed of the game
+ * @param candidates the agents that may be chosen to play, or null for every agent
+ * @param wins the win record to update
+ * @param losses the loss record to update
+ */
+void playGame(long gameseed, int[] candidates, double[] wins, double[] losses){
+	boolean resistancewin; 
+	Game g = new Game(gameseed); 
+	int[] agents = new int[10]; 
+	int numberofplayers = drawPlayers(new Random(gameseed), candidates, agents); 
+	
+	//half the players are expert agents.
+	int numberofexperts = numberofplayers/2; 
+	for(int e = 0; e < numberofexperts;e++){
+		g.addPlayer(new PinguBot(g.getSeatSeed(e)));
+	}
+	for(int n = 0; n < numberofplayers-numberofexperts; n++){
+		g.addPlayer(genomes[agents[n]].newAgent(g.getSeatSeed(numberofexperts+n)));
+	}
+	g.setup(); 
+	resistancewin = g.play();
+	
+	// at the end of each game determines whether resistance has won, and updates win/loss record accordingly. 
+	for(int n = 0; n < numberofplayers-numberofexperts; n++){
+		if(g.isSpy(numberofexperts+n) == resistancewin) losses[agents[n]]++;
+		else wins[agents[n]]++; 
+	}
+}
+/**
+ * Draws the number of players of a random game, between 5 and 10, and the distinct agents that take the seats after the PinguBots. 
+ * @param r the random number generator of the game's choices, seeded from the game's seed
+ * @param candidates the agents that may be chosen to play, or null for every agent
+ * @param agents the array the agents are written to, in seat order
+ * @return the number of players
+ */
+private int drawPlayers(Random r, int[] candidates, int[] agents){
+	int numberofplayers = r.nextInt(6) + 5; 
+	int chosen = numberofplayers - numberofplayers/2; 
+	for(int n = 0; n < chosen; n++){
+		int p = candidates == null ? r.nextInt(numberofagents) : candidates[r.nextInt(candidates.length)]; 
+		for(int m = 0; m < n; m++){
+			if(agents[m] == p){
+				p = candidates == null ? r.nextInt(numberofagents) : candidates[r.nextInt(candidates.length)]; 
+				m = -1; 
+			}
+		}
+		agents[n] = p; 
+	}
+	return numberofplayers; 
+}
+/**
+ * Plays a game of the generation's schedule and updates the win/loss record of its agents. 
+ * @param gameseed the seed of the game
+ * @param game the number of the game in the schedule
+ * @param wins the win record to update
+ * @param losses the loss record to update
+ */
+private void playScheduled(long gameseed, int game, double[] wins, double[] losses){
+	Game g = new Game(gameseed); 
+	int numberofplayers = schedule.getPlayers(game); 
+	int[] agents = schedule.getAgents(game); 
+	int numberofexperts = numberofplayers - agents.length; 
+	for(int e = 0; e < numberofexperts; e++){
+		g.addPlayer(new PinguBot(g.getSeatSeed(e)));
+	}
+	for(int n = 0; n < agents.length; n++){
+		g.addPlayer(genomes[agents[n]].newAgent(g.getSeatSeed(numberofexperts+n)));
+	}
+	g.setup(schedule.getSpies(game)); 
+	boolean resistancewin = g.play();
+	for(int n = 0; n < agents.length; n++){
+		if(g.isSpy(numberofexperts+n) == resistancewin) losses[agents[n]]++;
+		else wins[agents[n]]++; 
+	}
+}
+/**
+ * Plays each generation from a balanced MatchSchedule, so every agent plays as many games with each number of players
+ * and in each role as every other, instead of drawing the players of each game at random. 
+ * The number of games of a generation is then about numbgames, as the schedule needs. Racing and scenarios, if set, take precedence. 
+ * @param balanced true to balance the games
+ */
+public void setBalanced(boolean balanced){
+	this.balanced = balanced;
+}
+/**
+ * Writes a checkpoint every interval generations played, and at the end of the run, replacing the last one. 
+ * @param fName path to the checkpoint file, or null to write no checkpoints
+ * @param interval the number of generations played between checkpoints, where only every PLAYSTEP-th generation is played
+ */
+public void setCheckpoint(String fName, int interval){
+	if(interval < 1) throw new IllegalArgumentException("Interval must be at least 1");
+	checkpointfile = fName;
+	checkpointinterval = interval;
+}
+/**
+ * Writes the state of the run between generations: the schema and thresholds of every agent, the best agent so far, the ranking kept for migration, 
+ * the next generation, the settings the generations depend on, the fitness cache and the surrogate model with everything they hold, 
+ * and the state of the random number generator. 
+ * The checkpoint is written to a temporary file which is then moved over the old checkpoint, 
+ * so a crash part way through leaves the old checkpoint whole. 
+ * @param fName path to the checkpoint file
+ * @throws IOException if the checkpoint cannot be written
+ */
+public void saveCheckpoint(String fName) throws IOException{
+	Path target = Paths.get(fName).toAbsolutePath(); 
+	Path temp = target.resolveSibling(target.getFileName() + ".tmp"); 
+	FileOutputStream file = new FileOutputStream(temp.toFile()); 
+	try{
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file)); 
+		out.writeInt(CHECKPOINT_MAGIC); 
+		out.writeInt(CHECKPOINT_VERSION); 
+		out.writeInt(numberofagents); 
+		GenomeSchema schema = population.getSchema(); 
+		out.writeInt(schema.size()); 
+		for(int j = 0; j < schema.size(); j++){
+			out.writeUTF(schema.getName(j)); 
+			out.writeDouble(schema.getLower(j)); 
+			out.writeDouble(schema.getUpper(j)); 
+			out.writeDouble(schema.getScale(j)); 
+		}
+		out.writeInt(generation); 
+		out.writeInt(numbgens); 
+		out.writeInt(numbgames); 
+		out.writeInt(numbswaps); 
+		out.writeDouble(range); 
+		out.writeLong(seed); 
+		out.writeInt(finalsurvivor); 
+		out.writeDouble(bestwinloss); 
+		out.writeLong(gamesplayed); 
+		out.writeInt(racerounds); 
+		out.writeDouble(raceconfidence); 
+		out.writeBoolean(balanced); 
+		out.writeInt(numbscenarios); 
+		out.writeBoolean(best != null); 
+		if(best != null){
+			for(int j = 0; j < best.length; j++) out.writeDouble(best[j]); 
+		}
+		//the ranking of the last generation, for migration
+		out.writeInt(elite == null ? -1 : elite.length); 
+		if(elite != null){
+			for(double[] e : elite){
+				for(int j = 0; j < e.length; j++) out.writeDouble(e[j]); 
+			}
+			out.writeInt(worst.length); 
+			for(int w : worst) out.writeInt(w); 
+		}
+		for(int a = 0; a < numberofagents; a++){
+			for(int j = 0; j < population.getSchema().size(); j++) out.writeDouble(population.get(a, j)); 
+		}
+		out.writeBoolean(cache != null); 
+		if(cache != null){
+			out.writeInt(cache.getCapacity()); 
+			out.writeInt(cache.getMaxAge()); 
+			cache.write(out); 
+		}
+		out.writeBoolean(surrogate != null); 
+		if(surrogate != null){
+			out.writeInt(surrogate.getCapacity()); 
+			out.writeInt(surrogate.getK()); 
+			out.writeInt(oversample); 
+			surrogate.write(out); 
+		}
+		//Random keeps its state private, but writes it when serialized
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(); 
+		ObjectOutputStream oos = new ObjectOutputStream(bytes); 
+		oos.writeObject(rand); 
+		oos.close(); 
+		out.writeInt(bytes.size()); 
+		bytes.writeTo(out); 
+		out.flush(); 
+		file.getFD().sync(); 
+	}finally{file.close();}
+	try{
+		Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE); 
+	}catch(AtomicMoveNotSupportedException e){
+		Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING); 
+	}
+}
+/**
+ * Reads a run back from a checkpoint, ready for doGeneticAlg to continue it from the generation after the checkpoint. 
+ * Only the state listed in saveCheckpoint is saved. These settings are not, and must be set again to continue the run as it was: 
+ * the selection strategy, parallelism, checkpoint file, batch size and migration. 
+ * A fitness cache and surrogate model are made again as they were saved, holding the same games and genomes, 
+ * so the run continues as if it had never stopped; setting others in their place starts them afresh. 
+ * @param fName path to the checkpoint file
+ * @return the run
+ * @throws IOException if the file cannot be read or is not a checkpoint
+ */
+public static GeneticAlg resume(String fName) throws IOException{
+	DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fName))); 
+	try{
+		if(in.readInt() != CHECKPOINT_MAGIC) throw new IOException(fName + " is not a checkpoint"); 
+		int version = in.readInt(); 
+		if(version != CHECKPOINT_VERSION) throw new IOException("Unsupported checkpoint version " + version); 
+		int agents = in.readInt(); 
+		int genes = in.readInt(); 
+		if(genes != Genome.SIZE) throw new IOException("The checkpoint's genomes have " + genes + " genes, not " + Genome.SIZE); 
+		String[] names = new String[genes]; 
+		double[] lower = new double[genes], upper = new double[genes], scale = new double[genes]; 
+		for(int j = 0; j < genes; j++){
+			names[j] = in.readUTF(); 
+			lower[j] = in.readDouble(); 
+			upper[j] = in.readDouble(); 
+			scale[j] = in.readDouble(); 
+		}
+		GeneticAlg alg = new GeneticAlg(agents, new GenomeSchema(names, lower, upper, scale)); 
+		alg.generation = in.readInt(); 
+		alg.numbgens = in.readInt(); 
+		alg.numbgames = in.readInt(); 
+		alg.numbswaps = in.readInt(); 
+		alg.range = in.readDouble(); 
+		alg.seed = in.readLong(); 
+		alg.finalsurvivor = in.readInt(); 
+		alg.bestwinloss = in.readDouble(); 
+		alg.gamesplayed = in.readLong(); 
+		alg.racerounds = in.readInt(); 
+		alg.raceconfidence = in.readDouble(); 
+		alg.balanced = in.readBoolean(); 
+		alg.numbscenarios = in.readInt(); 
+		if(in.readBoolean()){
+			alg.best = new double[genes]; 
+			for(int j = 0; j < alg.best.length; j++) alg.best[j] = in.readDouble(); 
+		}
+		int elites = in.readInt(); 
+		if(elites >= 0){
+			alg.elite = new double[elites][genes]; 
+			for(double[] e : alg.elite){
+				for(int j = 0; j < e.length; j++) e[j] = in.readDouble(); 
+			}
+			alg.worst = new int[in.readInt()]; 
+			for(int w = 0; w < alg.worst.length; w++) alg.worst[w] = in.readInt(); 
+		}
+		for(int a = 0; a < alg.numberofagents; a++){
+			for(int j = 0; j < genes; j++) alg.population.set(a, j, in.readDouble()); 
+		}
+		if(in.readBoolean()){
+			int capacity = in.readInt(); 
+			alg.cache = new FitnessCache(capacity, in.readInt()); 
+			alg.cache.read(in); 
+		}
+		if(in.readBoolean()){
+			int capacity = in.readInt(), k = in.readInt(); 
+			alg.surrogate = new Surrogate(capacity, genes, k); 
+			alg.oversample = in.readInt(); 
+			alg.surrogate.read(in); 
+		}
+		byte[] bytes = new byte[in.readInt()]; 
+		in.readFully(bytes); 
+		ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes)); 
+		try{
+			alg.rand = (Random) ois.readObject(); 
+		}catch(ClassNotFoundException e){
+			throw new IOException(e); 
+		}
+		return alg; 
+	}finally{in.close();}
+}
+/**
+ * Makes the population one island of an island model, exchanging its best agents with other islands as it runs. 
+ * @param migration the exchange, or null to run alone
+ */
+public void setMigration(Migration migration){
+	this.migration = migration;
+}
+/**
+ * @param count the number of agents wanted
+ * @return copies of the thresholds of the best agents of the last generation as they were when it was ranked, best first
+ */
+double[][] emigrants(int count){
+	count = Math.min(count, elite == null ? numberofagents : elite.length); 
+	double[][] emigrants = new double[count][]; 
+	for(int m = 0; m < count; m++){
+		emigrants[m] = elite == null ? population.get(m) : elite[m].clone(); 
+	}
+	return emigrants; 
+}
+/**
+ * Puts agents from other islands in the places of the worst agents of the last generation by fitness, worst first, 
+ * never in place of a survivor. 
+ * @param immigrants the thresholds of the agents
+ */
+void immigrate(double[][] immigrants){
+	for(int m = 0; m < immigrants.length; m++){
+		int agent = worst == null ? numberofagents-1-m : worst[Math.min(m, worst.length-1)]; 
+		population.set(agent, immigrants[m]); 
+	}
+}
+/**
+ * Keeps the games of each threshold vector across generations, so an agent's winloss counts every game its thresholds 
+ * have played while they stay in the cache, not only those of the current generation. 
+ * With racing, agents known from earlier generations are then decided sooner. The cache is saved in checkpoints with its contents. 
+ * @param cache the cache, or null to count only the current generation's games
+ */
+public void setFitnessCache(FitnessCache cache){
+	this.cache = cache;
+}
+/**
+ * Screens children before they are played: every agent played is added to the surrogate model, and each survivor 
+ * makes oversample times as many mutants as it has children, of which only those the model predicts to be fittest 
+ * join the population. 
+ * @param surrogate the model, e.g. new Surrogate(5000, Genome.SCHEMA.size(), 8), or null to play every child made
+ * @param oversample the number of mutants made for each child kept
+ */
+public void setSurrogate(Surrogate surrogate, int oversample){
+	if(oversample < 1) throw new IllegalArgumentException("Oversample must be at least 1");
+	this.surrogate = surrogate;
+	this.oversample = oversample;
+}
+/**
+ * Sets how the survivors of each generation are chosen. The default keeps the fittest tenth (Selection.Truncation). 
+ * Strategies that may choose an agent more than once give it a set of children each time. 
+ * @param selection the selection strategy
+ */
+public void setSelection(Selection selection){
+	this.selection = selection;
+}
+/**
+ * Evaluates the agents of each generation with common random numbers: a bank of scenarios is drawn for the generation
+ * and every agent plays every scenario, in the same seat against the same opponents with the same luck, 
+ * so differences in winloss come from the agents alone (see ScenarioBank). 
+ * The opponents after the PinguBots play the thresholds of the best agent of the last generation, as they were when it was ranked. 
+ * A generation then plays scenarios times the number of agents games in place of numbgames. Racing, if set, takes precedence. 
+ * @param scenarios the number of scenarios, or 0 to play random games
+ */
+public void setScenarios(int scenarios){
+	if(scenarios < 0) throw new IllegalArgumentException("Scenarios must not be negative");
+	numbscenarios = scenarios;
+}
+/**
+ * Plays the games of each generation in batches with a BatchGame instead of one Game at a time. 
+ * Every game ends as it would in a Game, so the run is the same with or without batches. 
+ * @param games the most games in a batch, e.g. 1024, or 0 to play each game through a Game
+ */
+public void setBatch(int games){
+	if(games < 0) throw new IllegalArgumentException("Batch size must not be negative");
+	batchsize = games;
+}
+/**
+ * Sets the number of worker threads used to play the games of each generation. 
+ * A value of 1 plays every game on the calling thread. 
+ * @param threads the number of threads to use
+ */
+public void setParallelism(int threads){
+	if(threads < 1) throw new IllegalArgumentException("Parallelism must be at least 1");
+	parallelism = threads;
+	if(pool != null) pool.shutdown();
+	pool = threads > 1 ? new ForkJoinPool(threads) : null;
+}
+/**
+ * Races the agents of each generation instead of playing numbgames games for every agent, see race. 
+ * @param rounds the number of rounds the games are split into, or 0 to turn racing off
+ * @param confidence the confidence level at which the agents are decided, over all the agents and rounds, e.g. 0.95
+ */
+public void setRacing(int rounds, double confidence){
+	if(rounds < 0) throw new IllegalArgumentException("Rounds must not be negative");
+	racerounds = rounds;
+	raceconfidence = confidence;
+}
+/**
+ * Runs the algorithm, writing checkpoints as it goes. 
+ * @param args "resume" to continue the run in the checkpoint file, or nothing to start a new run, 
+ * which first moves any old checkpoint aside so it is not overwritten
+ * @throws IOException if the checkpoint cannot be read or moved
+ */
+public static void main(String[] args) throws IOException{
 	
 		
 		double[] initialparam = {20,0.4,0.3,0.3,35,50,70};
-		GeneticAlg gen = new GeneticAlg(1000,2000,2000,initialparam,0.3,0.1); 
+		String checkpoint = "GeneticAlg.checkpoint"; 
+		GeneticAlg gen; 
+		if(args.length > 0 && args[0].equals("resume")){
+			gen = resume(checkpoint); //continues a run that was stopped
+			if(gen.generation >= gen.numbgens){
+				System.out.println("The run in " + checkpoint + " has already finished"); 
+				return; 
+			}
+		}
+		else{
+			if(new File(checkpoint).exists()){
+				Files.move(Paths.get(checkpoint), Paths.get(checkpoint + ".old"), StandardCopyOption.REPLACE_EXISTING); 
+				System.out.println("Moved the old checkpoint to " + checkpoint + ".old"); 
+			}
+			gen = new GeneticAlg(1000,2000,2000,initialparam,0.3,0.1); 
+		}
+		gen.setCheckpoint(checkpoint, 100); 
+		gen.setParallelism(Runtime.getRuntime().availableProcessors()); 
+		gen.setBatch(1024);
 		gen.doGeneticAlg();
 	
 	
+}
+/**
+ * A thread's BatchGame for each number of players, 5 to 10, with the agents each game of a batch counts for. 
+ */
+private static final class Batches {
+	final BatchGame[] games = new BatchGame[6]; 
+	final int[][] counted = new int[6][]; //counted[n-5][g*10+seat] is the agent whose record game g of a batch counts for the seat, or -1
 }
 }  
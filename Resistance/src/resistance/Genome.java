@@ -0,0 +1,96 @@
+package resistance;
+
+/**
+ * The immutable threshold values of a genetic agent.
+ *
+ * A genome holds no game state, so one genome can be shared between any number of games at once,
+ * each game playing it through its own agent made by newAgent.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public final class Genome {
+
+	/*
+	 * The number of threshold values.
+	 *  Indices:
+	 *  Suspicion
+	 *  	0 : suspicion constant
+	 * 	 1 : weighting 1
+	 * 	 2 : weighting 2
+	 *  	3 : weighting 3
+	 *  Voting
+	 *  	4 : Vote threshold spy
+	 *  	5 : Vote threshold resistance
+	 *  Betray
+	 *  	6 : Betray threshold
+	 */
+	public static final int SIZE = 7;
+
+	/**
+	 * The genes of a genome, for the genetic algorithm. Every threshold is at least 0, and is mutated by the algorithm's full range.
+	 */
+	public static final GenomeSchema SCHEMA = new GenomeSchema(
+			new String[]{"suspicion constant", "weighting 1", "weighting 2", "weighting 3", "vote threshold spy", "vote threshold resistance", "betray threshold"},
+			new double[]{0, 0, 0, 0, 0, 0, 0},
+			new double[]{Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE},
+			new double[]{1, 1, 1, 1, 1, 1, 1});
+
+	private final int ID;
+	private final double[] thresholds;
+
+	/**
+	 * Creates a genome from the given threshold values. Negative values are replaced by 0.001.
+	 * @param ID the ID of the genome
+	 * @param th the array containing the threshold values, which is copied.
+	 */
+	public Genome(int ID, double[] th){
+		this.ID = ID;
+		thresholds = new double[SIZE];
+		for(int i = 0; i < SIZE; i++){
+			thresholds[i] = th[i];
+			if(th[i] < 0) thresholds[i] = 0.001;
+		}
+	}
+
+	/**
+	 * Gets the genome's ID
+	 * @return returns the ID of the genome
+	 */
+	public int getID(){
+		return ID;
+	}
+
+	/**
+	 * Gets one threshold value.
+	 * @param i the index of the threshold
+	 * @return the threshold value
+	 */
+	public double get(int i){
+		return thresholds[i];
+	}
+
+	/**
+	 * Gets the threshold values without copying them, for the agents playing this genome. The array must not be modified.
+	 * @return the threshold values
+	 */
+	double[] thresholds(){
+		return thresholds;
+	}
+
+	/**
+	 * Creates an agent to play this genome in a single game.
+	 * @return a new agent with fresh game state
+	 */
+	public GAgent newAgent(){
+		return new GAgent(this);
+	}
+
+	/**
+	 * Creates an agent to play this genome in a single game, with reproducible random choices.
+	 * @param seed the seed for the agent's random numbers, e.g. from Game.getSeatSeed
+	 * @return a new agent with fresh game state
+	 */
+	public GAgent newAgent(long seed){
+		return new GAgent(this, seed);
+	}
+}
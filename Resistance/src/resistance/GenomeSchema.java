@@ -0,0 +1,72 @@
+package resistance;
+
+/**
+ * Describes the genes of a genome: the name of each gene, the bounds of its value and how far it is mutated.
+ *
+ * GeneticAlg and CmaEs take a schema to keep each threshold within its own bounds and mutate it by its own scale.
+ * The number of genes is fixed: the agents are played through Genome and BatchGame, which hold the Genome.SIZE thresholds
+ * of a GAgent, so a schema given to them must describe those thresholds in order (see Genome.SCHEMA, the default).
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public final class GenomeSchema {
+
+	private final String[] names;
+	private final double[] lower;
+	private final double[] upper;
+	private final double[] scale;
+
+	/**
+	 * @param names the name of each gene
+	 * @param lower the smallest value of each gene
+	 * @param upper the largest value of each gene
+	 * @param scale the mutation scale of each gene, multiplying the algorithm's mutation range; 1 mutates by the range itself
+	 */
+	public GenomeSchema(String[] names, double[] lower, double[] upper, double[] scale){
+		if(lower.length != names.length || upper.length != names.length || scale.length != names.length)
+			throw new IllegalArgumentException("Every gene needs a name, bounds and a scale");
+		for(int j = 0; j < names.length; j++)
+			if(lower[j] > upper[j]) throw new IllegalArgumentException("Empty bounds for "+names[j]);
+		this.names = names.clone();
+		this.lower = lower.clone();
+		this.upper = upper.clone();
+		this.scale = scale.clone();
+	}
+
+	/**
+	 * @return the number of genes
+	 */
+	public int size(){
+		return names.length;
+	}
+
+	/**
+	 * @param gene the index of a gene
+	 * @return the name of the gene
+	 */
+	public String getName(int gene){
+		return names[gene];
+	}
+
+	/**
+	 * @param name the name of a gene
+	 * @return the index of the gene
+	 */
+	public int indexOf(String name){
+		for(int j = 0; j < names.length; j++) if(names[j].equals(name)) return j;
+		throw new IllegalArgumentException("No gene "+name);
+	}
+
+	public double getLower(int gene){ return lower[gene]; }
+	public double getUpper(int gene){ return upper[gene]; }
+	public double getScale(int gene){ return scale[gene]; }
+
+	/**
+	 * @param gene the index of a gene
+	 * @param value a value of the gene
+	 * @return the value brought within the gene's bounds
+	 */
+	public double clamp(int gene, double value){
+		return value < lower[gene] ? lower[gene] : value > upper[gene] ? upper[gene] : value;
+	}
+}
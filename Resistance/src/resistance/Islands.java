@@ -0,0 +1,137 @@
+package resistance;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Runs the genetic algorithm as an island model: several populations evolve apart, each seeded from the master seed and
+ * its island number, and exchange their best agents through a shared directory (see Migration).
+ * Populations kept apart hold on to more variety than one large population, and each island may run in its own process.
+ *
+ * Run with a directory and a number of islands to run every island on threads of this JVM, or add an island number
+ * to run just that island, e.g. one process per island on machines sharing the directory:
+ * <pre>
+ *  java resistance.Islands &lt;dir&gt; &lt;islands&gt; [island] [seed]
+ * </pre>
+ * The files of a run are named for its seed. Running every island clears the files an earlier run with the seed left
+ * in the directory; before running the islands of a seed again in separate processes, clear them with Migration.clear
+ * or delete them by hand.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class Islands {
+
+	private static final double[] initialparam = {20,0.4,0.3,0.3,35,50,70};
+
+	private final String dir;
+	private final int islands;
+	private final long seed;
+	private int generations = 1000;
+	private int games = 2000;
+	private int swaps = 2000;
+	private Migration.Topology topology = Migration.Topology.RING;
+	private int interval = 1;
+	private int migrants = 5;
+
+	/**
+	 * @param dir the directory the islands share
+	 * @param islands the number of islands
+	 * @param seed the master seed of the whole run
+	 */
+	public Islands(String dir, int islands, long seed){
+		this.dir = dir;
+		this.islands = islands;
+		this.seed = seed;
+	}
+
+	/**
+	 * @param generations the number of generations each island runs
+	 * @param games the number of games of each generation
+	 * @param swaps the number of swaps of each generation
+	 */
+	public void setGenerations(int generations, int games, int swaps){
+		this.generations = generations;
+		this.games = games;
+		this.swaps = swaps;
+	}
+
+	/**
+	 * @param topology which islands send agents to which
+	 * @param interval the number of generations played between migrations, where only every GeneticAlg.PLAYSTEP-th generation is played
+	 * @param migrants the number of agents each island sends
+	 */
+	public void setMigration(Migration.Topology topology, int interval, int migrants){
+		this.topology = topology;
+		this.interval = interval;
+		this.migrants = migrants;
+	}
+
+	/**
+	 * Creates the algorithm of one island.
+	 * @param island the island, from 0
+	 * @return the island's algorithm, ready to run
+	 */
+	public GeneticAlg island(int island){
+		GeneticAlg alg = new GeneticAlg(generations, games, swaps, initialparam, 0.3, 0.1, Seeds.derive(seed, island));
+		alg.setMigration(new Migration(dir, seed, island, islands, topology, interval, migrants));
+		return alg;
+	}
+
+	/**
+	 * Runs every island at once, each on its own thread, sharing the cores between them,
+	 * after clearing any files an earlier run with the same seed left in the directory.
+	 * @return the thresholds of the best agent of each island
+	 * @throws UncheckedIOException if an island failed to migrate (see Migration), after every island has stopped
+	 */
+	public double[][] run(){
+		Migration.clear(dir, seed);
+		final double[][] best = new double[islands][];
+		final RuntimeException[] failure = new RuntimeException[islands];
+		final int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors()/islands);
+		List<Thread> threads = new ArrayList<Thread>();
+		for(int i = 0; i < islands; i++){
+			final int island = i;
+			Thread t = new Thread(new Runnable(){
+				public void run(){
+					GeneticAlg alg = island(island);
+					alg.setParallelism(parallelism);
+					try{
+						best[island] = alg.doGeneticAlg();
+					}catch(RuntimeException e){
+						failure[island] = e;
+					}
+				}
+			}, "Island "+i);
+			t.start();
+			threads.add(t);
+		}
+		for(Thread t : threads){
+			try{
+				t.join();
+			}catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+		}
+		for(RuntimeException e : failure) if(e != null) throw e;
+		return best;
+	}
+
+	public static void main(String[] args){
+		if(args.length < 2){
+			System.out.println("Usage: Islands <dir> <islands> [island] [seed]");
+			return;
+		}
+		int islands = Integer.parseInt(args[1]);
+		long seed = args.length > 3 ? Long.parseLong(args[3]) : 0;
+		Islands model = new Islands(args[0], islands, seed);
+		if(args.length > 2 && Integer.parseInt(args[2]) >= 0){
+			GeneticAlg alg = model.island(Integer.parseInt(args[2]));
+			alg.setParallelism(Runtime.getRuntime().availableProcessors());
+			alg.doGeneticAlg();
+		}
+		else {
+			double[][] best = model.run();
+			for(int i = 0; i < islands; i++) System.out.println("Island "+i+": "+Arrays.toString(best[i]));
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package resistance;
+
+/**
+ * A histogram of latencies in nanoseconds.
+ *
+ * Latencies are counted in logarithmic buckets, eight to each power of two, so a percentile is reported to within 12.5%
+ * of the true value while the whole histogram is a fixed array of a few hundred counts.
+ * Recording is not synchronized: each thread should record into its own histograms and merge them when it is done.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class LatencyHistogram {
+
+	private static final int SUB = 3; //log2 of the number of buckets to each power of two
+	private static final int BUCKETS = (64-SUB)<<SUB;
+
+	private final long[] counts = new long[BUCKETS];
+	private long count = 0;
+	private long total = 0;
+	private long max = 0;
+
+	/**
+	 * Counts one latency.
+	 * @param nanos the latency in nanoseconds
+	 */
+	public void record(long nanos){
+		if(nanos < 0) nanos = 0;
+		counts[bucket(nanos)]++;
+		count++;
+		total += nanos;
+		if(nanos > max) max = nanos;
+	}
+
+	/**
+	 * Adds the counts of another histogram to this one.
+	 * @param other the histogram to add
+	 */
+	public void merge(LatencyHistogram other){
+		for(int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+		count += other.count;
+		total += other.total;
+		if(other.max > max) max = other.max;
+	}
+
+	/**
+	 * @return the number of latencies counted
+	 */
+	public long getCount(){
+		return count;
+	}
+
+	/**
+	 * @return the largest latency counted, in nanoseconds
+	 */
+	public long getMax(){
+		return max;
+	}
+
+	/**
+	 * @return the mean latency, in nanoseconds
+	 */
+	public double getMean(){
+		return count == 0 ? 0 : (double) total/count;
+	}
+
+	/**
+	 * Gets a percentile of the latencies.
+	 * @param q the fraction of latencies that are at most the percentile, e.g. 0.99
+	 * @return an upper bound on the percentile, in nanoseconds
+	 */
+	public long getPercentile(double q){
+		if(count == 0) return 0;
+		long rank = (long) Math.ceil(q*count);
+		if(rank < 1) rank = 1;
+		long seen = 0;
+		for(int i = 0; i < BUCKETS; i++){
+			seen += counts[i];
+			if(seen >= rank) return Math.min(upper(i), max);
+		}
+		return max;
+	}
+
+	/**
+	 * @param v a latency
+	 * @return the bucket the latency is counted in
+	 */
+	static int bucket(long v){
+		if(v < 1<<SUB) return (int) v;
+		int e = 63 - Long.numberOfLeadingZeros(v);
+		return ((e-SUB+1)<<SUB) + (int)((v >>> (e-SUB)) & ((1<<SUB)-1));
+	}
+
+	/**
+	 * @param i a bucket
+	 * @return the largest latency counted in the bucket
+	 */
+	static long upper(int i){
+		if(i < 1<<SUB) return i;
+		int e = (i>>SUB) + SUB - 1;
+		long lower = (long)((1<<SUB) + (i & ((1<<SUB)-1))) << (e-SUB);
+		return lower + (1L<<(e-SUB)) - 1;
+	}
+}
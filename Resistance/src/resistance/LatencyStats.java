@@ -0,0 +1,85 @@
+package resistance;
+
+import java.util.*;
+import java.io.PrintStream;
+
+/**
+ * Latency histograms of every agent method, kept separately for each class of agent.
+ *
+ * A game given a LatencyStats with Game.setTimings records the time taken by every call it makes to an agent.
+ * Like LatencyHistogram, a LatencyStats should only be recorded into by one thread at a time;
+ * games on different threads should have their own, merged into one at the end of a tournament.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class LatencyStats {
+
+	private final Map<String,LatencyHistogram[]> histograms = new TreeMap<String,LatencyHistogram[]>();
+
+	/**
+	 * Gets the histograms of a class of agent, indexed by AgentCall ordinal.
+	 * @param agent the name of the class of agent
+	 * @return the agent's histograms, created if the agent has none yet
+	 */
+	public synchronized LatencyHistogram[] forAgent(String agent){
+		LatencyHistogram[] h = histograms.get(agent);
+		if(h == null){
+			h = new LatencyHistogram[AgentCall.values().length];
+			for(int i = 0; i < h.length; i++) h[i] = new LatencyHistogram();
+			histograms.put(agent, h);
+		}
+		return h;
+	}
+
+	/**
+	 * @param agent the name of the class of agent
+	 * @param call the method
+	 * @return the histogram of the method's latencies for the agent
+	 */
+	public LatencyHistogram get(String agent, AgentCall call){
+		return forAgent(agent)[call.ordinal()];
+	}
+
+	/**
+	 * @return the names of the classes of agent timed
+	 */
+	public synchronized Set<String> getAgents(){
+		return new TreeSet<String>(histograms.keySet());
+	}
+
+	/**
+	 * Adds the latencies recorded by another LatencyStats to this one.
+	 * The other's histograms are listed under its lock and added under this one's, so the two locks are never held at once
+	 * and two stats merging into each other at the same time cannot deadlock.
+	 * @param other the stats to add, which must not be being recorded into
+	 */
+	public void merge(LatencyStats other){
+		Map<String,LatencyHistogram[]> theirs;
+		synchronized(other){
+			theirs = new TreeMap<String,LatencyHistogram[]>(other.histograms);
+		}
+		synchronized(this){
+			for(Map.Entry<String,LatencyHistogram[]> e : theirs.entrySet()){
+				LatencyHistogram[] mine = forAgent(e.getKey());
+				for(int i = 0; i < mine.length; i++) mine[i].merge(e.getValue()[i]);
+			}
+		}
+	}
+
+	/**
+	 * Prints a table of the latencies of every method called on each class of agent, in microseconds.
+	 * @param out the stream to print to
+	 */
+	public synchronized void print(PrintStream out){
+		out.println(String.format("%-16s %-20s %10s %9s %9s %9s %9s %9s", "agent", "method", "calls", "mean", "p50", "p99", "p99.9", "max"));
+		for(Map.Entry<String,LatencyHistogram[]> e : histograms.entrySet()){
+			for(AgentCall call : AgentCall.values()){
+				LatencyHistogram h = e.getValue()[call.ordinal()];
+				if(h.getCount() == 0) continue;
+				out.println(String.format("%-16s %-20s %10d %9.1f %9.1f %9.1f %9.1f %9.1f%s", e.getKey(), call.getMethod(), h.getCount(),
+						h.getMean()/1000, h.getPercentile(0.5)/1000.0, h.getPercentile(0.99)/1000.0, h.getPercentile(0.999)/1000.0, h.getMax()/1000.0,
+						h.getMax() > call.getLimit()*1000000 ? " over limit" : ""));
+			}
+		}
+	}
+}
@@ -0,0 +1,156 @@
+package resistance;
+
+import java.util.Random;
+
+/**
+ * A balanced schedule of the games of one generation of the genetic algorithm, drawn up before any game is played.
+ *
+ * As in GeneticAlg.playGame, a game of n players seats n/2 PinguBots followed by n-n/2 distinct agents of the population.
+ * The schedule gives every agent the same number of games with each number of players from 5 to 10
+ * (exactly when the seats divide evenly among the agents, otherwise to within one game),
+ * and, for each number of players, as near as it can the same number of games as a spy.
+ * The share of agent seats that are spies is the share of all seats that are spies, as when spies are drawn at random.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class MatchSchedule {
+
+	private final int[] players; //players[game] is the number of players in the game
+	private final int[] spies; //spies[game] is the bitmask of the spies' seats
+	private final int[][] agents; //agents[game][i] is the agent in the i-th agent seat, after the PinguBots
+
+	/**
+	 * Draws up a schedule.
+	 * @param numberofagents the size of the population
+	 * @param games roughly the number of games to play; the schedule plays as many as it takes to give every agent
+	 * the same number of games with each number of players, at least one
+	 * @param rand breaks ties between equally used agents and places the spies among the PinguBots
+	 */
+	public MatchSchedule(int numberofagents, int games, Random rand){
+		if(numberofagents < 5) throw new IllegalArgumentException("Too few agents");
+		//the number of games each agent plays with each number of players
+		double perround = 0;
+		for(int n = 5; n <= 10; n++) perround += (double) numberofagents/seats(n);
+		int each = Math.max(1, (int) Math.round(games/perround));
+		int[] count = new int[6];
+		int total = 0;
+		for(int n = 5; n <= 10; n++){
+			count[n-5] = (numberofagents*each + seats(n)-1)/seats(n);
+			total += count[n-5];
+		}
+		players = new int[total];
+		spies = new int[total];
+		agents = new int[total][];
+
+		int[] order = new int[numberofagents];
+		for(int i = 0; i < numberofagents; i++) order[i] = i;
+		int game = 0;
+		for(int n = 5; n <= 10; n++){
+			int seats = seats(n);
+			int experts = n - seats;
+			int spynum = Game.spies(n);
+			int[] played = new int[numberofagents]; //the games each agent has in the schedule with n players
+			int[] spied = new int[numberofagents]; //the games each agent is a spy in with n players
+			long spyseats = 0; //the agent seats that are spies so far with n players
+			for(int g = 0; g < count[n-5]; g++, game++){
+				shuffle(order, rand);
+				//the number of the agent seats that are spies, keeping their share of all agent seats at spynum/n
+				long target = ((long) (g+1)*seats*spynum)/n;
+				int agentspies = (int) Math.min(Math.min(target - spyseats, spynum), seats);
+				spyseats += agentspies;
+				//the least played agents fill the seats, the spy seats going to those furthest behind their share of spy games
+				//and the resistance seats to those furthest ahead of it
+				int[] team = new int[seats];
+				for(int s = 0; s < seats; s++){
+					boolean spy = s < agentspies;
+					int best = -1;
+					long bestdebt = 0;
+					for(int i = 0; i < numberofagents; i++){
+						int a = order[i];
+						if(contains(team, s, a)) continue;
+						long debt = (long) played[a]*spynum - (long) spied[a]*n; //how far the agent is behind its share of spy games
+						if(!spy) debt = -debt;
+						if(best == -1 || played[a] < played[best] || (played[a] == played[best] && debt > bestdebt)){
+							best = a;
+							bestdebt = debt;
+						}
+					}
+					team[s] = best;
+					played[best]++;
+					if(spy) spied[best]++;
+				}
+				//the spies are the first agentspies of the team, which is then seated in a random order
+				int mask = (1<<agentspies)-1;
+				for(int s = seats-1; s > 0; s--){
+					int j = rand.nextInt(s+1);
+					int t = team[s];
+					team[s] = team[j];
+					team[j] = t;
+					if((mask>>s & 1) != (mask>>j & 1)) mask ^= 1<<s | 1<<j;
+				}
+				mask <<= experts;
+				for(int k = agentspies; k < spynum; k++){
+					int spy = rand.nextInt(experts);
+					while((mask & 1<<spy) != 0) spy = rand.nextInt(experts);
+					mask |= 1<<spy;
+				}
+				players[game] = n;
+				spies[game] = mask;
+				agents[game] = team;
+			}
+		}
+	}
+
+	/**
+	 * @param players the number of players in a game
+	 * @return the number of seats in the game taken by agents of the population
+	 */
+	static int seats(int players){
+		return players - players/2;
+	}
+
+	private static boolean contains(int[] team, int size, int agent){
+		for(int i = 0; i < size; i++) if(team[i] == agent) return true;
+		return false;
+	}
+
+	private static void shuffle(int[] a, Random rand){
+		for(int i = a.length-1; i > 0; i--){
+			int j = rand.nextInt(i+1);
+			int t = a[i];
+			a[i] = a[j];
+			a[j] = t;
+		}
+	}
+
+	/**
+	 * @return the number of games in the schedule
+	 */
+	public int getGames(){
+		return players.length;
+	}
+
+	/**
+	 * @param game the game, from 0
+	 * @return the number of players in the game
+	 */
+	public int getPlayers(int game){
+		return players[game];
+	}
+
+	/**
+	 * @param game the game, from 0
+	 * @return the bitmask of the seats of the spies
+	 */
+	public int getSpies(int game){
+		return spies[game];
+	}
+
+	/**
+	 * @param game the game, from 0
+	 * @return the agents in the agent seats of the game, which follow the PinguBots' seats; must not be changed
+	 */
+	public int[] getAgents(int game){
+		return agents[game];
+	}
+}
@@ -0,0 +1,185 @@
+package resistance;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Moves the best agents between the islands of an island model genetic algorithm, through files in a shared directory.
+ *
+ * Every interval generations played (see GeneticAlg.PLAYSTEP) each island writes the thresholds of its best agents to a file named for the run,
+ * the island and the generation, then waits for the files of the islands it receives from (see Topology) and puts their agents in place of
+ * its worst. Islands may run on threads of one JVM, in separate processes, or on separate machines sharing the directory.
+ * As each island waits for its sources, a run with the same seeds gives the same result however the islands are run.
+ * An island that cannot exchange its agents, because a source does not send them within the timeout, the wait is interrupted
+ * or a file cannot be written or read, stops with an UncheckedIOException rather than going on without them,
+ * so a run that finishes has always made every exchange.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class Migration {
+
+	/**
+	 * Which islands send agents to which.
+	 */
+	public enum Topology {
+		/** Each island receives from the island before it, the first from the last. */
+		RING,
+		/** Each island receives from every other island. */
+		FULL;
+
+		/**
+		 * @param island the receiving island
+		 * @param islands the number of islands
+		 * @return the islands that send agents to the island
+		 */
+		public int[] sources(int island, int islands){
+			if(islands < 2) return new int[0];
+			if(this == RING) return new int[]{(island + islands - 1) % islands};
+			int[] sources = new int[islands-1];
+			for(int i = 0, n = 0; i < islands; i++) if(i != island) sources[n++] = i;
+			return sources;
+		}
+	}
+
+	private final File dir;
+	private final long run;
+	private final int island;
+	private final int islands;
+	private final Topology topology;
+	private final int interval;
+	private final int migrants;
+	private long timeout = 600000; //the longest an island waits for a source, in milliseconds
+
+	/**
+	 * @param dir the directory the islands share
+	 * @param run the id of the run, e.g. its master seed, so the files of other runs in the directory are never read
+	 * @param island this island, from 0
+	 * @param islands the number of islands
+	 * @param topology which islands send agents to which
+	 * @param interval the number of generations played between migrations
+	 * @param migrants the number of agents each island sends
+	 */
+	public Migration(String dir, long run, int island, int islands, Topology topology, int interval, int migrants){
+		if(island < 0 || island >= islands) throw new IllegalArgumentException("No island "+island);
+		if(interval < 1) throw new IllegalArgumentException("Interval must be at least 1");
+		this.dir = new File(dir);
+		this.run = run;
+		this.island = island;
+		this.islands = islands;
+		this.topology = topology;
+		this.interval = interval;
+		this.migrants = migrants;
+		this.dir.mkdirs();
+	}
+
+	/**
+	 * @param millis the longest to wait for a source island before the island fails
+	 */
+	public void setTimeout(long millis){
+		timeout = millis;
+	}
+
+	/**
+	 * @return the island this migration is for
+	 */
+	public int getIsland(){
+		return island;
+	}
+
+	/**
+	 * Called after each generation played; migrates if the generation ends an interval.
+	 * @param alg the island's algorithm
+	 * @param generation the number of generations played
+	 * @throws UncheckedIOException if the island's agents cannot be sent or a source's agents cannot be received
+	 */
+	void generationDone(GeneticAlg alg, int generation){
+		if(generation % interval != 0) return;
+		try{
+			send(alg.emigrants(migrants), generation);
+			List<double[]> arrivals = new ArrayList<double[]>();
+			for(int source : topology.sources(island, islands)){
+				arrivals.addAll(Arrays.asList(receive(source, generation)));
+			}
+			alg.immigrate(arrivals.toArray(new double[arrivals.size()][]));
+			//the islands this one sends to are never more than islands-1 migrations behind it, so older files have been read
+			new File(dir, name(island, generation - islands*interval)).delete();
+		}catch(IOException e){
+			throw new UncheckedIOException("Island "+island+" could not migrate after generation "+generation, e);
+		}
+	}
+
+	private static String prefix(long run){
+		return "run"+run+"-";
+	}
+
+	private String name(int island, int generation){
+		return prefix(run)+"island"+island+"-gen"+generation+".mig";
+	}
+
+	/**
+	 * Deletes the files a run has left in a directory. The files of the last few migrations of a run are never deleted,
+	 * as an island cannot know when the others have read them, so this must be called before the islands of a run
+	 * are started again in the same directory, or they would read the agents of the earlier run.
+	 * @param dir the directory the islands share
+	 * @param run the id of the run
+	 */
+	public static void clear(String dir, long run){
+		final String prefix = prefix(run);
+		File[] files = new File(dir).listFiles(new FilenameFilter(){
+			public boolean accept(File d, String name){
+				return name.startsWith(prefix) && (name.endsWith(".mig") || name.endsWith(".mig.tmp"));
+			}
+		});
+		if(files == null) return;
+		for(File f : files) f.delete();
+	}
+
+	/**
+	 * Writes the island's emigrants, to a temporary file moved into place so no island reads part of it.
+	 */
+	private void send(double[][] emigrants, int generation) throws IOException{
+		File target = new File(dir, name(island, generation));
+		File temp = new File(dir, target.getName()+".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+		try{
+			out.writeInt(emigrants.length);
+			out.writeInt(emigrants.length == 0 ? 0 : emigrants[0].length);
+			for(double[] thresholds : emigrants)
+				for(double t : thresholds) out.writeDouble(t);
+		}finally{out.close();}
+		try{
+			Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}catch(AtomicMoveNotSupportedException e){
+			Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Waits for and reads the emigrants of a source island.
+	 * @return the thresholds of the emigrants
+	 * @throws IOException if the source does not send them in time, the wait is interrupted or the file cannot be read
+	 */
+	private double[][] receive(int source, int generation) throws IOException{
+		File f = new File(dir, name(source, generation));
+		long deadline = System.currentTimeMillis() + timeout;
+		while(!f.exists()){
+			if(System.currentTimeMillis() > deadline){
+				throw new IOException("No migrants from island "+source+" within "+timeout+"ms");
+			}
+			try{
+				Thread.sleep(20);
+			}catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted waiting for island "+source);
+			}
+		}
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)));
+		try{
+			double[][] arrivals = new double[in.readInt()][in.readInt()];
+			for(double[] thresholds : arrivals)
+				for(int j = 0; j < thresholds.length; j++) thresholds[j] = in.readDouble();
+			return arrivals;
+		}finally{in.close();}
+	}
+}
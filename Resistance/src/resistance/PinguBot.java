@@ -23,20 +23,29 @@ public class PinguBot implements Agent{
 	  private int numbfailed; // current number of missions failed. 
 	  private boolean spy;
 	  private Random random;
+	  private final long seed; //the seed of the agent's random numbers, which init starts them from again
 	  private int missionnumb;  
 	  private int votenumb; //the number of votes that have been made this round
 	  
 	  public PinguBot() {
-		  
-		 init(); 
-		
+		  this(new Random().nextLong()); 
+	  }
+	  
+	  /**
+	   * Creates a PinguBot with reproducible random choices. 
+	   * @param seed the seed for the agent's random numbers
+	   */
+	  public PinguBot(long seed) {
+		  this.seed = seed; 
+		  init(); 
 	  }
 
 	  /** Initialising the global variables of the agent for each new game. 
-	   * 
+	   * The random numbers start again from the agent's seed, so a game played after init is played as by a new agent. 
 	   */
 	  public void init(){
-		  random = new Random();
+		  if(random == null) random = new Random(seed); 
+		  else random.setSeed(seed);
 		  numbfailed = 0; 
 		  votenumb = 0; 
 		  missionnumb = 1; 
@@ -0,0 +1,152 @@
+package resistance;
+
+import java.util.Random;
+
+/**
+ * The genomes of a whole population of the genetic algorithm, stored in one array gene by gene:
+ * the value of gene j of agent a is at j*size + a, so each gene of every agent is contiguous.
+ *
+ * The operators work over many agents at once and loop over the genes of the population's schema.
+ * Each operator draws its random numbers agent by agent and gene by gene, in the order the algorithm always has.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class Population {
+
+	private final GenomeSchema schema;
+	private final int size;
+	private final double[] genes;
+
+	/**
+	 * Creates a population with every gene 0.
+	 * @param schema the genes of each genome
+	 * @param size the number of agents
+	 */
+	public Population(GenomeSchema schema, int size){
+		this.schema = schema;
+		this.size = size;
+		genes = new double[schema.size()*size];
+	}
+
+	public GenomeSchema getSchema(){
+		return schema;
+	}
+
+	/**
+	 * @return the number of agents
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * @param agent the agent
+	 * @param gene the index of the gene
+	 * @return the value of the agent's gene
+	 */
+	public double get(int agent, int gene){
+		return genes[gene*size + agent];
+	}
+
+	/**
+	 * @param agent the agent
+	 * @param gene the index of the gene
+	 * @param value the new value of the agent's gene
+	 */
+	public void set(int agent, int gene, double value){
+		genes[gene*size + agent] = value;
+	}
+
+	/**
+	 * @param agent the agent
+	 * @return a copy of the agent's genes
+	 */
+	public double[] get(int agent){
+		double[] values = new double[schema.size()];
+		for(int j = 0; j < values.length; j++) values[j] = genes[j*size + agent];
+		return values;
+	}
+
+	/**
+	 * @param agent the agent
+	 * @param values the agent's new genes, one for each gene of the schema
+	 */
+	public void set(int agent, double[] values){
+		for(int j = 0; j < schema.size(); j++) genes[j*size + agent] = values[j];
+	}
+
+	/**
+	 * Spreads every agent's genes about a base genome: each gene becomes base - range*g + 2*range*u*g,
+	 * where g is the gene's current value and u is uniform on [0,1).
+	 * @param base the base genome
+	 * @param range the spread
+	 * @param rand the random number generator of the algorithm
+	 */
+	public void spread(double[] base, double range, Random rand){
+		int n = schema.size();
+		for(int a = 0; a < size; a++){
+			for(int j = 0; j < n; j++){
+				int i = j*size + a;
+				genes[i] = base[j] - range*genes[i] + range * 2 * rand.nextDouble()*genes[i];
+			}
+		}
+	}
+
+	/**
+	 * Makes children of parents by mutation: each gene of a child is its parent's gene scaled by a uniform factor
+	 * between 1-r and 1+r, where r is the amount times the gene's mutation scale, and kept within the gene's bounds.
+	 * Parent p has children children[p*perparent] to children[p*perparent+perparent-1].
+	 * @param parents the parents
+	 * @param numbparents the number of parents
+	 * @param children the agents replaced by the children
+	 * @param perparent the number of children of each parent
+	 * @param amount the mutation range
+	 * @param rand the random number generator of the algorithm
+	 */
+	public void mutate(int[] parents, int numbparents, int[] children, int perparent, double amount, Random rand){
+		int n = schema.size();
+		for(int p = 0; p < numbparents; p++){
+			int parent = parents[p];
+			for(int c = 0; c < perparent; c++){
+				int child = children[p*perparent + c];
+				for(int j = 0; j < n; j++){
+					double g = genes[j*size + parent];
+					double r = amount*schema.getScale(j);
+					genes[j*size + child] = schema.clamp(j, g - r*g + r * 2 * rand.nextDouble() * g);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Makes one mutant of an agent as mutate would, without putting it in the population.
+	 * @param parent the parent
+	 * @param amount the mutation range
+	 * @param rand the random number generator of the algorithm
+	 * @param out the array the mutant's genes are written to
+	 */
+	public void mutant(int parent, double amount, Random rand, double[] out){
+		for(int j = 0; j < schema.size(); j++){
+			double g = genes[j*size + parent];
+			double r = amount*schema.getScale(j);
+			out[j] = schema.clamp(j, g - r*g + r * 2 * rand.nextDouble() * g);
+		}
+	}
+
+	/**
+	 * Swaps one gene of two agents, a given number of times, choosing the agents and gene at random each time.
+	 * @param swaps the number of swaps
+	 * @param rand the random number generator of the algorithm
+	 */
+	public void swap(int swaps, Random rand){
+		int n = schema.size();
+		for(int iteration = 0; iteration < swaps; iteration++){
+			int a = rand.nextInt(size);
+			int b = rand.nextInt(size);
+			int base = rand.nextInt(n)*size;
+			double temp = genes[base + a];
+			genes[base + a] = genes[base + b];
+			genes[base + b] = temp;
+		}
+	}
+}
@@ -3,58 +3,67 @@ package resistance;
 /**
  * The final Genetic agent with a fixed set of thresholds obtained by running the
  * genetic algorithm
+ * It is an Agent, and plays by seats and bitmasks through fast (see SeatAgent). 
  * 
  * @author Tianchi Ren, Jelyn Thong
  */
 import java.util.*; 
-public class PotatoBot implements Agent{
+public class PotatoBot extends SeatAgent{
 	
 	//Global variables 
 	  
-	  private String name;
-	  private String players;
-	  private String spies; 
-	  private HashMap<Character,Double> suspicion; // maps the player to their suspicion level. 
-	  private String votes; //stores a string containing the players who voted yes
-	  private String team; //the proposed team embarking on the mission. The latest instance will be the actual team going on the mission. 
+	  private int name; //the agent's seat
+	  private int players; //the number of players
+	  private int spies; 
+	  private double[] suspicion; // suspicion[i] is the agent's suspicion of the player in seat i. 
+	  private final int[] order = new int[10]; //working space for choosing the least suspected players 
+	  private int votes; //stores a bitmask of the players who voted yes
+	  private int team; //the proposed team embarking on the mission. The latest instance will be the actual team going on the mission. 
 	  private int numbfailed; // current number of missions failed. 
 	  private boolean spy;
 	  private Random random;
+	  private final long seed; //the seed of the agent's random numbers, which init starts them from again
 	  private int missionnumb;  
 	  private int votenumb; //the number of votes that have been made this round
 	  
-	  /*
-	   * An array holding all the threshold values of the agent. 
-	   *  Indices: 
-	   *  Suspicion
-	   *  	0 : suspicion constant
-	   * 	 1 : weighting 1
-	   * 	 2 : weighting 2
-	   *  	3 : weighting 3
-	   *  Voting
-	   *  	4 : Vote threshold spy
-	   *  	5 : Vote threshold resistance
-	   *  Betray
-	   *  	6 : Betray threshold
-	   *  
-	   *  
+	  /**
+	   * The thresholds obtained by running the genetic algorithm. 
 	   */
-	  private double[] thresholds; 
+	  public static final Genome GENOME = new Genome(0, new double[]{16.514,0.3537,0.3274,0.2776,38.449,67.295,79.52}); 
+	  
+	  private final double[] thresholds; //the genome's values, indexed as described in Genome. Never written to. 
 	  
 	  public PotatoBot() {
-		  double[] t =  {16.514,0.3537,0.3274,0.2776,38.449,67.295,79.52};
-		  thresholds = t;
-		 init(); 
-		
+		  this(GENOME); 
+	  }
+	  
+	  /**
+	   * Creates a PotatoBot playing the given thresholds for a single game. 
+	   * @param genome the genome holding the threshold values
+	   */
+	  public PotatoBot(Genome genome) {
+		  this(genome, new Random().nextLong()); 
+	  }
+	  
+	  /**
+	   * Creates a PotatoBot with reproducible random choices. 
+	   * @param genome the genome holding the threshold values
+	   * @param seed the seed for the agent's random numbers
+	   */
+	  public PotatoBot(Genome genome, long seed) {
+		  thresholds = genome.thresholds(); 
+		  this.seed = seed; 
+		  init(); 
 	  }
 	
 	  /** Initialising the global variables of the agent for each new game. 
-	   * 
+	   * The random numbers start again from the agent's seed, so a game played after init is played as by a new agent. 
 	   */
 	  public void init()
 	  {
-		  random = new Random();
-		  suspicion = new HashMap<Character,Double>(); 
+		  if(random == null) random = new Random(seed); 
+		  else random.setSeed(seed);
+		  suspicion = new double[10]; 
 		  numbfailed = 0; 
 		  votenumb = 0; 
 		  
@@ -62,25 +71,21 @@ public class PotatoBot implements Agent{
 	  }
 
 	  /**
-	   * Reports the current status, including players name, the name of all players, the names of the spies (if known), the mission number and the number of failed missions
-	   * @param name a string consisting of a single letter, the agent's names.
-	   * @param players a string consisting of one letter for everyone in the game.
-	   * @param spies a String consisting of the latter name of each spy, if the agent is a spy, or n questions marks where n is the number of spies allocated; this should be sufficient for the agent to determine if they are a spy or not. 
+	   * Reports the current status, including players seat, the number of players, the spies (if known), the mission number and the number of failed missions
+	   * @param name the agent's seat.
+	   * @param players the number of players in the game.
+	   * @param spies a bitmask of the spies, if the agent is a spy, or 0 if the agent is not a spy. 
 	   * @param mission the next mission to be launched
 	   * @param failures the number of failed missions
 	   * @return within 100ms
 	   * */
-	  public void get_status(String name, String players, String spies, int mission, int failures){
+	  public void get_status(int name, int players, int spies, int mission, int failures){
 		  this.name = name; 
 		  this.players = players; 
-		  spy = spies.indexOf(name)!=-1;
+		  spy = (spies & 1<<name) != 0;
 		  if(spy){
 			  this.spies = spies;
 		  }
-		  for(int i = 0; i < players.length();i++){
-				if(!suspicion.containsKey(players.charAt(i))) 
-						suspicion.put((Character) players.charAt(i), (double) 0);
-		 }
 		  numbfailed = failures; 
 		  missionnumb = mission; 
 		  
@@ -88,51 +93,37 @@ public class PotatoBot implements Agent{
 	  
 	  /**
 	   * Nominates a group of agents to go on a mission.
-	   * If the String does not correspond to a legitimate mission (<i>number</i> of distinct agents, in a String), 
-	   * a default nomination of the first <i>number</i> agents (in alphabetical order) will be reported, as if this was what the agent nominated.
+	   * If the bitmask does not correspond to a legitimate mission (<i>number</i> of agents in the game), 
+	   * a default nomination of the first <i>number</i> seats will be reported, as if this was what the agent nominated.
 	   * @param number the number of agents to be sent on the mission
-	   * @return a String containing the names of all the agents in a mission, within 1sec
+	   * @return a bitmask of the agents in the mission, within 1sec
 	   * */
-	  public String do_Nominate(int number){
+	  public int nominate(int number){
 		  // If it is a spy then randomly nominate, but always nominate self. 
-		  HashSet<Character> team = new HashSet<Character>();
-		  team.add(this.name.charAt(0));
+		  int team = 1<<this.name;
 		  if(this.spy){
 			      for(int i = 1; i<number; i++){
-			      char c = players.charAt(random.nextInt(players.length()));
-			      while(team.contains(c)) c = players.charAt(random.nextInt(players.length()));
-			      team.add(c);
+			      int c = random.nextInt(players);
+			      while((team & 1<<c) != 0) c = random.nextInt(players);
+			      team |= 1<<c;
 			    }
 			    
 			  
 		  }
 		  // picks members with lowest suspicion. 
 		  else {
-			 for(int i = 1; i < number; i++){
-				 double lowest = Integer.MAX_VALUE;
-				 char ch = ' ';
-				 for(int j = 0; j < players.length(); j++ ){
-					 if((suspicion.get(players.charAt(j)) < lowest) && !team.contains(players.charAt(j))){
-						 ch = players.charAt(j); 
-						 lowest = suspicion.get(ch);
-					 }
-				 }
-
-				 team.add(ch); 
-			 }
+			 team = GAgent.leastSuspected(suspicion, players, team, number-1, order); 
 		  }
 		  
-		  	String tm = "";
-		    for(Character c: team)tm+=c;
-		    return tm;
+		    return team;
 	  }
 
 	  /**
 	   * Provides information of a given mission.
-	   * @param leader the leader who proposed the mission
-	   * @param mission a String containing the names of all the agents in the mission within 1sec
+	   * @param leader the seat of the leader who proposed the mission
+	   * @param mission a bitmask of the agents in the mission
 	   **/
-	  public void get_ProposedMission(String leader, String mission){
+	  public void get_ProposedMission(int leader, int mission){
 		  team = mission; 
 	  }
 
@@ -146,14 +137,10 @@ public class PotatoBot implements Agent{
 		  double value = 0; 
 		  //voting calculation for spy
 		  if(spy){
-		  int numberofspies = 0; 
-		  for(int i = 0; i < team.length();i++){
-			  String s = Character.toString(team.charAt(i)); 
-			  if(spies.contains(s)) numberofspies++;  
-			 	}
+		  int numberofspies = Integer.bitCount(team & spies); 
 		  if(numberofspies > 0) return true; //always vote yes if there is a spy on the team.
 		  
-		  value = ( (suspicion.get(this.name.charAt(0))))/ thresholds[4]; //the lower the spy's suspicion the more likely the spy is to vote no. 
+		  value = ( (suspicion[this.name]))/ thresholds[4]; //the lower the spy's suspicion the more likely the spy is to vote no. 
 		 
 		  yes = value/(random.nextDouble()+ 0.00001) > 1; 
 		  
@@ -162,11 +149,11 @@ public class PotatoBot implements Agent{
 		  //voting calculation for resistance
 		  else {
 			  double totalsuspicion = 0;
-			  for(int i = 0; i < team.length(); i++){
-				  totalsuspicion += suspicion.get(team.charAt(i));
+			  for(int i = 0; i < players; i++){
+				  if((team & 1<<i) != 0) totalsuspicion += suspicion[i];
 			  }
-			  value = (totalsuspicion/(team.length()*thresholds[5]));
-			  yes = value/(random.nextDouble() + 0.00001) < 1; //simulates voting yes with a probability of totalsuspicion/(team.length()*thresholds[5])
+			  value = (totalsuspicion/(Integer.bitCount(team)*thresholds[5]));
+			  yes = value/(random.nextDouble() + 0.00001) < 1; //simulates voting yes with a probability of totalsuspicion/(team size*thresholds[5])
 			  
 		  }
 		  
@@ -176,20 +163,20 @@ public class PotatoBot implements Agent{
 
 	  /**
 	   * Reports the votes for the previous mission
-	   * @param yays the names of the agents who voted for the mission
+	   * @param yays a bitmask of the agents who voted for the mission
 	   * @return within 100ms
 	   **/
-	  public void get_Votes(String yays){
+	  public void get_Votes(int yays){
 		  votes = yays; 
 	  }
 
 	  /**
 	   * Reports the agents being sent on a mission.
 	   * Should be able to be infered from tell_ProposedMission and tell_Votes, but incldued for completeness.
-	   * @param mission the Agents being sent on a mission
+	   * @param mission a bitmask of the agents being sent on a mission
 	   * @return within 100ms
 	   **/
-	  public void get_Mission(String mission){
+	  public void get_Mission(int mission){
 		  team = mission; 
 		  votenumb = 0; 
 	  }
@@ -200,7 +187,7 @@ public class PotatoBot implements Agent{
 	   **/
 	  public boolean do_Betray(){
 		  double value = 0; 
-		  value = (suspicion.get(this.name.charAt(0)) + numbfailed - (team.length()/3))/thresholds[6]; 
+		  value = (suspicion[this.name] + numbfailed - (Integer.bitCount(team)/3))/thresholds[6]; 
 		  if(numbfailed == 2) return true; 
 		  return value/(random.nextDouble() + 0.00001) < 1; 
 	  }
@@ -215,29 +202,30 @@ public class PotatoBot implements Agent{
 	  //suspicion usually between 1-10
 	  public void get_Traitors(int traitors){
 		  if(traitors > 0){
-			  for(int i = 0; i < team.length(); i++){
+			  for(int i = 0; i < players; i++){
+				  if((team & 1<<i) == 0) continue; 
 				  //updating new suspicion values for condition: Person on a failed mission
-				  double currentsus = suspicion.get(team.charAt(i));
-				  double newsus = currentsus + (thresholds[0]*thresholds[1]/team.length());
-				  suspicion.put(team.charAt(i), newsus); 
+				  double currentsus = suspicion[i];
+				  double newsus = currentsus + (thresholds[0]*thresholds[1]/Integer.bitCount(team));
+				  suspicion[i] = newsus; 
 				  
 			  }
-			  for(int j = 0; j < votes.length(); j++){
+			  for(int j = 0; j < players; j++){
+				  if((votes & 1<<j) == 0) continue; 
 				  //updating new suspicion values for condition: voted yes for a failed mission 
-				  double currentsus = suspicion.get(votes.charAt(j)); 
+				  double currentsus = suspicion[j]; 
 				  double newsus = currentsus + thresholds[0] * thresholds[2]; 
-				  suspicion.put(votes.charAt(j), newsus); 
+				  suspicion[j] = newsus; 
 				 
 			  }
 		  }
 		  else {
-			  for(int k = 0; k < players.length(); k++){
+			  for(int k = 0; k < players; k++){
 				  //updating new suspicion values for condition: Person voted no for a successful mission
-				  String p = Character.toString(players.charAt(k)); 
-				  if(!votes.contains(p)){
-					  double currentsus = suspicion.get(players.charAt(k)); 
+				  if((votes & 1<<k) == 0){
+					  double currentsus = suspicion[k]; 
 					  double newsus = currentsus + thresholds[0] * thresholds[3]; 
-					  suspicion.put(players.charAt(k), newsus); 
+					  suspicion[k] = newsus; 
 				  }
 			  }
 		  
@@ -248,22 +236,20 @@ public class PotatoBot implements Agent{
 
 	  /**
 	   * Optional method to accuse other Agents of being spies. 
-	   * Default action should return the empty String. 
-	   * Convention suggests that this method only return a non-empty string when the accuser is sure that the accused is a spy.
-	   * Of course convention can be ignored.
-	   * @return a string containing the name of each accused agent, within 1 sec 
+	   * Default action should return 0. 
+	   * @return a bitmask of the accused agents, within 1 sec 
 	   * */
-	  public String do_Accuse(){
-		  return ""; 
+	  public int accuse(){
+		  return 0; 
 	  }
 
 	  /**
 	   * Optional method to process an accusation.
-	   * @param accuser the name of the agent making the accusation.
-	   * @param accused the names of the Agents being Accused, concatenated in a String.
+	   * @param accuser the seat of the agent making the accusation.
+	   * @param accused a bitmask of the agents being accused.
 	   * @return within 100ms
 	   * */
-	  public void get_Accusation(String accuser, String accused){
+	  public void get_Accusation(int accuser, int accused){
 		  
 
 	}
@@ -24,6 +24,14 @@ public class RandomAgent implements Agent{
     random = new Random();
   }
 
+  /**
+   * Creates an agent with reproducible random choices.
+   * @param seed the seed for the agent's random numbers
+   */
+  public RandomAgent(long seed){
+    random = new Random(seed);
+  }
+
   /**
    * Reports the current status, inlcuding players name, the name of all players, the names of the spies (if known), the mission number and the number of failed missions
    * @param name a string consisting of a single letter, the agent's names.
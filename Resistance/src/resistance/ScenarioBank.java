@@ -0,0 +1,108 @@
+package resistance;
+
+import java.util.Random;
+
+/**
+ * A bank of game scenarios on which every agent of a generation is played, so that agents are compared on the same games.
+ *
+ * A scenario fixes everything about a game but the agent being evaluated: the number of players, the spies,
+ * the seed of the game (and so the sequence of leaders and the random choices of every other player), and the focal seat
+ * the evaluated agent takes. As in GeneticAlg.playGame, the first n/2 seats are PinguBots; the other seats are taken by
+ * a fixed opponent genome. Two agents then differ in a scenario only through their own decisions,
+ * so the luck of the draw cancels out when their results are compared.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class ScenarioBank {
+
+	private final int[] players; //players[s] is the number of players in scenario s
+	private final int[] spies; //spies[s] is the bitmask of the spies' seats
+	private final int[] focal; //focal[s] is the seat of the evaluated agent
+	private final long[] seeds; //seeds[s] is the seed of the game
+
+	/**
+	 * Draws a bank of scenarios, with players and spies drawn as in a random game.
+	 * @param scenarios the number of scenarios
+	 * @param rand the random number generator the scenarios are drawn from
+	 */
+	public ScenarioBank(int scenarios, Random rand){
+		if(scenarios < 1) throw new IllegalArgumentException("Need at least one scenario");
+		players = new int[scenarios];
+		spies = new int[scenarios];
+		focal = new int[scenarios];
+		seeds = new long[scenarios];
+		for(int s = 0; s < scenarios; s++){
+			int n = rand.nextInt(6) + 5;
+			int mask = 0;
+			for(int i = 0; i < Game.spies(n); i++){
+				int spy = rand.nextInt(n);
+				while((mask & 1<<spy) != 0) spy = rand.nextInt(n);
+				mask |= 1<<spy;
+			}
+			players[s] = n;
+			spies[s] = mask;
+			focal[s] = n/2 + rand.nextInt(n - n/2);
+			seeds[s] = rand.nextLong();
+		}
+	}
+
+	/**
+	 * @return the number of scenarios
+	 */
+	public int size(){
+		return players.length;
+	}
+
+	/**
+	 * @param scenario the scenario, from 0
+	 * @return the number of players
+	 */
+	public int getPlayers(int scenario){
+		return players[scenario];
+	}
+
+	/**
+	 * @param scenario the scenario, from 0
+	 * @return the bitmask of the seats of the spies
+	 */
+	public int getSpies(int scenario){
+		return spies[scenario];
+	}
+
+	/**
+	 * @param scenario the scenario, from 0
+	 * @return the seat of the evaluated agent
+	 */
+	public int getFocal(int scenario){
+		return focal[scenario];
+	}
+
+	/**
+	 * @param scenario the scenario, from 0
+	 * @return the seed of the game
+	 */
+	public long getSeed(int scenario){
+		return seeds[scenario];
+	}
+
+	/**
+	 * Plays an agent in a scenario.
+	 * @param scenario the scenario, from 0
+	 * @param agent the evaluated agent, seeded with the focal seat's seed of the game (see Game.getSeatSeed)
+	 * @param opponent the genome of the agents in the other seats after the PinguBots
+	 * @return true if the evaluated agent's side won
+	 */
+	public boolean play(int scenario, AgentFactory agent, Genome opponent){
+		int n = players[scenario];
+		Game g = new Game(seeds[scenario]);
+		for(int seat = 0; seat < n; seat++){
+			long seatseed = g.getSeatSeed(seat);
+			if(seat == focal[scenario]) g.addPlayer(agent.create(seatseed));
+			else if(seat < n/2) g.addPlayer(new PinguBot(seatseed));
+			else g.addPlayer(opponent.newAgent(seatseed));
+		}
+		g.setup(spies[scenario]);
+		boolean resistancewin = g.play();
+		return g.isSpy(focal[scenario]) != resistancewin;
+	}
+}
@@ -0,0 +1,155 @@
+package resistance;
+
+/**
+ * An Agent that keeps its state by seat and bitmask, as a FastAgent does, so it can be played either way.
+ *
+ * A subclass implements the FastAgent methods, except that nominate and accuse stand in for FastAgent's do_Nominate and do_Accuse,
+ * whose return types clash with Agent's. The Agent methods convert names to seats and bitmasks and call them, so the agent
+ * can be passed anywhere an Agent is expected, and fast gives the same agent as a FastAgent for a Game to play without Strings.
+ * Game.addPlayer(Agent) uses fast itself.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public abstract class SeatAgent implements Agent {
+
+	private int players; //the number of players, known from the first status report
+	private final Fast fast = new Fast();
+
+	/**
+	 * @see FastAgent#get_status(int, int, int, int, int)
+	 */
+	public abstract void get_status(int name, int players, int spies, int mission, int failures);
+
+	/**
+	 * The FastAgent do_Nominate.
+	 * @param number the number of agents to be sent on the mission
+	 * @return a bitmask of the agents in the mission
+	 */
+	public abstract int nominate(int number);
+
+	/**
+	 * @see FastAgent#get_ProposedMission(int, int)
+	 */
+	public abstract void get_ProposedMission(int leader, int mission);
+
+	/**
+	 * @see FastAgent#get_Votes(int)
+	 */
+	public abstract void get_Votes(int yays);
+
+	/**
+	 * @see FastAgent#get_Mission(int)
+	 */
+	public abstract void get_Mission(int mission);
+
+	/**
+	 * The FastAgent do_Accuse.
+	 * @return a bitmask of the accused agents
+	 */
+	public abstract int accuse();
+
+	/**
+	 * @see FastAgent#get_Accusation(int, int)
+	 */
+	public abstract void get_Accusation(int accuser, int accused);
+
+	/**
+	 * @return the agent as a FastAgent, the same object every call
+	 */
+	public FastAgent fast(){
+		return fast;
+	}
+
+	/**
+	 * @param names the names of some players
+	 * @return a bitmask of their seats, or 0 if the names are not a set of players
+	 */
+	private int seats(String names){
+		int mask = Seats.mask(names, players);
+		return mask == -1 ? 0 : mask;
+	}
+
+	public void get_status(String name, String players, String spies, int mission, int failures){
+		this.players = players.length();
+		get_status(name.charAt(0)-65, this.players, seats(spies), mission, failures);
+	}
+
+	public String do_Nominate(int number){
+		return Seats.names(nominate(number));
+	}
+
+	public void get_ProposedMission(String leader, String mission){
+		get_ProposedMission(leader.charAt(0)-65, seats(mission));
+	}
+
+	public void get_Votes(String yays){
+		get_Votes(seats(yays));
+	}
+
+	public void get_Mission(String mission){
+		get_Mission(seats(mission));
+	}
+
+	public String do_Accuse(){
+		return Seats.names(accuse());
+	}
+
+	public void get_Accusation(String accuser, String accused){
+		if(accuser.length() == 1) get_Accusation(accuser.charAt(0)-65, seats(accused));
+	}
+
+	/**
+	 * The agent as a FastAgent, calling the seat and bitmask methods directly.
+	 */
+	public final class Fast implements FastAgent {
+
+		private Fast(){}
+
+		/**
+		 * @return the agent played
+		 */
+		public SeatAgent getAgent(){
+			return SeatAgent.this;
+		}
+
+		public void get_status(int name, int players, int spies, int mission, int failures){
+			SeatAgent.this.get_status(name, players, spies, mission, failures);
+		}
+
+		public int do_Nominate(int number){
+			return nominate(number);
+		}
+
+		public void get_ProposedMission(int leader, int mission){
+			SeatAgent.this.get_ProposedMission(leader, mission);
+		}
+
+		public boolean do_Vote(){
+			return SeatAgent.this.do_Vote();
+		}
+
+		public void get_Votes(int yays){
+			SeatAgent.this.get_Votes(yays);
+		}
+
+		public void get_Mission(int mission){
+			SeatAgent.this.get_Mission(mission);
+		}
+
+		public boolean do_Betray(){
+			return SeatAgent.this.do_Betray();
+		}
+
+		public void get_Traitors(int traitors){
+			SeatAgent.this.get_Traitors(traitors);
+		}
+
+		public int do_Accuse(){
+			return accuse();
+		}
+
+		public void get_Accusation(int accuser, int accused){
+			SeatAgent.this.get_Accusation(accuser, accused);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package resistance;
+
+/**
+ * Conversions between seats, the bitmasks used by FastAgent and the player names used by Agent.
+ * The agent in seat i is named (char)(65+i).
+ * 
+ * @author Tianchi Ren, Jelyn Thong
+ */
+final class Seats {
+
+	private static final String[] names = {"A","B","C","D","E","F","G","H","I","J"}; //names[i] is the name of seat i
+	private static final String[] unknown = {"","?","??","???","????"}; //unknown[n] is the spy String given to the resistance when there are n spies
+
+	private Seats(){}
+
+	/**
+	 * @param seat a seat
+	 * @return the name of the agent in the seat
+	 */
+	static String name(int seat){
+		return names[seat];
+	}
+
+	/**
+	 * Converts a set of seats to the String of their names, in alphabetical order.
+	 * @param mask a bitmask of seats
+	 * @return the names of the seats in the mask
+	 */
+	static String names(int mask){
+		char[] c = new char[Integer.bitCount(mask)];
+		int n = 0;
+		for(int i = 0; mask>>>i != 0; i++)
+			if((mask & 1<<i) != 0) c[n++] = (char)(65+i);
+		return new String(c);
+	}
+
+	/**
+	 * @param spies the number of spies in the game
+	 * @return the String of question marks reported to the resistance in place of the spies names
+	 */
+	static String unknown(int spies){
+		return unknown[spies];
+	}
+
+	/**
+	 * Converts a String of names to a set of seats.
+	 * @param s the names of some players
+	 * @param players the number of players in the game
+	 * @return a bitmask of the named seats, or -1 if a name is not a player or appears twice
+	 */
+	static int mask(String s, int players){
+		if(s == null) return -1;
+		int mask = 0;
+		for(int i = 0; i<s.length(); i++){
+			int seat = s.charAt(i)-65;
+			if(seat<0 || seat>=players || (mask & 1<<seat) != 0) return -1;
+			mask |= 1<<seat;
+		}
+		return mask;
+	}
+}
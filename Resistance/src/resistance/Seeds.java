@@ -0,0 +1,41 @@
+package resistance;
+
+/**
+ * Derives independent random seeds from a single master seed.
+ *
+ * A seed is derived from its parent and an index only, with the SplitMix64 mixing function used by SplittableRandom,
+ * so the seed of, say, seat 3 of game 1000 of generation 20 is the same whichever thread plays the game and in whatever order.
+ * A whole tournament or genetic algorithm run is then reproduced exactly by reusing its master seed.
+ *
+ * Within a game, stream 0 is used by the game itself (spies and leaders) and stream seat+1 by the agent in each seat,
+ * see Game.getSeatSeed.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public final class Seeds {
+
+	private static final long GAMMA = 0x9e3779b97f4a7c15L; //the golden ratio increment used by SplittableRandom
+
+	private Seeds(){}
+
+	/**
+	 * Derives the seed of a child stream.
+	 * @param seed the parent seed
+	 * @param index the index of the child, e.g. the game number or seat
+	 * @return the seed of the child
+	 */
+	public static long derive(long seed, long index){
+		return mix(mix(seed) + GAMMA*(index+1));
+	}
+
+	/**
+	 * The SplitMix64 finaliser, which spreads every bit of its input over the whole output.
+	 * @param z the value to mix
+	 * @return the mixed value
+	 */
+	static long mix(long z){
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,220 @@
+package resistance;
+
+import java.util.Random;
+
+/**
+ * Chooses the survivors of a generation of the genetic algorithm from the fitness of its agents.
+ *
+ * Agents are compared by fitness, higher being better, with a tie going to the lower index and a fitness of NaN
+ * (an agent that played no games) ranking below every other. Strategies keep their working arrays between calls,
+ * so choosing survivors allocates nothing once the population size is fixed; an instance must not be shared by
+ * algorithms running at the same time.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public interface Selection {
+
+	/**
+	 * Chooses the survivors.
+	 * @param fitness fitness[i] is the fitness of agent i
+	 * @param n the number of agents
+	 * @param k the number of survivors to choose
+	 * @param rand the random number generator of the algorithm
+	 * @param survivors the array to write the survivors to, in survivors[0] to survivors[k-1];
+	 * an agent may be chosen more than once by strategies that sample
+	 */
+	public void select(double[] fitness, int n, int k, Random rand, int[] survivors);
+
+	/**
+	 * Chooses the k fittest agents, best first, as the genetic algorithm always has.
+	 * Runs in O(n + k log k) time by partial selection of an index array.
+	 */
+	public static class Truncation implements Selection {
+		private int[] index = new int[0];
+
+		public void select(double[] fitness, int n, int k, Random rand, int[] survivors){
+			if(index.length < n) index = new int[n];
+			for(int i = 0; i < n; i++) index[i] = i;
+			top(index, n, k, fitness);
+			System.arraycopy(index, 0, survivors, 0, k);
+		}
+	}
+
+	/**
+	 * Chooses each survivor as the fittest of a number of agents drawn at random.
+	 */
+	public static class Tournament implements Selection {
+		private final int size;
+
+		/**
+		 * @param size the number of agents in each tournament, at least 1
+		 */
+		public Tournament(int size){
+			if(size < 1) throw new IllegalArgumentException("Tournament size must be at least 1");
+			this.size = size;
+		}
+
+		public void select(double[] fitness, int n, int k, Random rand, int[] survivors){
+			for(int s = 0; s < k; s++){
+				int best = rand.nextInt(n);
+				for(int t = 1; t < size; t++){
+					int a = rand.nextInt(n);
+					if(better(a, best, fitness)) best = a;
+				}
+				survivors[s] = best;
+			}
+		}
+	}
+
+	/**
+	 * Chooses survivors at random with linear ranking: the best agent is pressure times as likely to be chosen as the average
+	 * and the worst 2-pressure times, whatever the gaps between their fitnesses.
+	 */
+	public static class Rank implements Selection {
+		private final double pressure;
+		private int[] index = new int[0];
+
+		/**
+		 * @param pressure the selection pressure, from 1 (every agent equally likely) to 2
+		 */
+		public Rank(double pressure){
+			if(pressure < 1 || pressure > 2) throw new IllegalArgumentException("Pressure must be between 1 and 2");
+			this.pressure = pressure;
+		}
+
+		public void select(double[] fitness, int n, int k, Random rand, int[] survivors){
+			if(index.length < n) index = new int[n];
+			for(int i = 0; i < n; i++) index[i] = i;
+			sort(index, 0, n, fitness);
+			for(int s = 0; s < k; s++){
+				//inverts the cumulative distribution of the rank, whose density falls linearly from pressure to 2-pressure
+				double u = rand.nextDouble();
+				double r;
+				if(pressure == 1) r = u;
+				else {
+					double a = pressure - 1;
+					r = (pressure - Math.sqrt(pressure*pressure - 4*a*u)) / (2*a);
+				}
+				survivors[s] = index[Math.min(n-1, (int) (r*n))];
+			}
+		}
+	}
+
+	/**
+	 * Keeps the fittest few agents and chooses the other survivors with another strategy.
+	 */
+	public static class Elitist implements Selection {
+		private final int elites;
+		private final Selection rest;
+		private int[] index = new int[0];
+		private int[] chosen = new int[0];
+
+		/**
+		 * @param elites the number of the fittest agents that always survive
+		 * @param rest chooses the other survivors, from every agent
+		 */
+		public Elitist(int elites, Selection rest){
+			if(elites < 0) throw new IllegalArgumentException("Elites must not be negative");
+			this.elites = elites;
+			this.rest = rest;
+		}
+
+		public void select(double[] fitness, int n, int k, Random rand, int[] survivors){
+			int e = Math.min(elites, k);
+			if(index.length < n) index = new int[n];
+			if(chosen.length < k) chosen = new int[k];
+			for(int i = 0; i < n; i++) index[i] = i;
+			top(index, n, e, fitness);
+			System.arraycopy(index, 0, survivors, 0, e);
+			if(k > e){
+				rest.select(fitness, n, k-e, rand, chosen);
+				System.arraycopy(chosen, 0, survivors, e, k-e);
+			}
+		}
+	}
+
+	/**
+	 * @return true if agent a ranks above agent b
+	 */
+	static boolean better(int a, int b, double[] fitness){
+		double fa = fitness[a], fb = fitness[b];
+		boolean nana = fa != fa, nanb = fb != fb;
+		if(nana || nanb){
+			if(nana && nanb) return a < b;
+			return nanb;
+		}
+		if(fa != fb) return fa > fb;
+		return a < b;
+	}
+
+	/**
+	 * Moves the k best agents of index[0..n) to its front, best first, by quickselect and then sorting the k.
+	 * @param index the agents
+	 * @param n the number of agents
+	 * @param k the number to move to the front
+	 * @param fitness the fitness of every agent
+	 */
+	static void top(int[] index, int n, int k, double[] fitness){
+		if(k <= 0) return;
+		int lo = 0, hi = n; //the k-th best is in index[lo..hi)
+		while(hi - lo > 1){
+			int p = partition(index, lo, hi, fitness);
+			if(p == k-1) break;
+			if(p < k-1) lo = p+1;
+			else hi = p;
+		}
+		sort(index, 0, Math.min(k, n), fitness);
+	}
+
+	/**
+	 * Sorts index[lo..hi), best first.
+	 */
+	static void sort(int[] index, int lo, int hi, double[] fitness){
+		while(hi - lo > 16){
+			int p = partition(index, lo, hi, fitness);
+			//recurses into the smaller side so the stack stays shallow
+			if(p - lo < hi - p){
+				sort(index, lo, p, fitness);
+				lo = p+1;
+			}
+			else {
+				sort(index, p+1, hi, fitness);
+				hi = p;
+			}
+		}
+		for(int i = lo+1; i < hi; i++){
+			int a = index[i];
+			int j = i;
+			while(j > lo && better(a, index[j-1], fitness)){
+				index[j] = index[j-1];
+				j--;
+			}
+			index[j] = a;
+		}
+	}
+
+	/**
+	 * Partitions index[lo..hi) about the median of its first, middle and last agents.
+	 * @return the position of the pivot, every agent before which ranks above it and every agent after below it
+	 */
+	static int partition(int[] index, int lo, int hi, double[] fitness){
+		int mid = (lo + hi) >>> 1, last = hi-1;
+		if(better(index[mid], index[lo], fitness)) swap(index, mid, lo);
+		if(better(index[last], index[lo], fitness)) swap(index, last, lo);
+		if(better(index[last], index[mid], fitness)) swap(index, last, mid);
+		swap(index, mid, last); //the median is the pivot, kept at the end
+		int pivot = index[last];
+		int store = lo;
+		for(int i = lo; i < last; i++){
+			if(better(index[i], pivot, fitness)) swap(index, i, store++);
+		}
+		swap(index, store, last);
+		return store;
+	}
+
+	static void swap(int[] index, int i, int j){
+		int t = index[i];
+		index[i] = index[j];
+		index[j] = t;
+	}
+}
@@ -0,0 +1,127 @@
+package resistance;
+
+/**
+ * Decides when a tournament has played enough games to stop early.
+ * 
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public interface StoppingRule {
+
+	/**
+	 * @param stats the counts of the games played so far
+	 * @return true if no more games are needed
+	 */
+	public boolean done(TournamentStats stats);
+
+	/**
+	 * Stops once an agent's win rate is known to within a given precision.
+	 * The rule is checked many times as games are played, so the confidence level is split across the looks (see WinRate.z)
+	 * and the interval holds at the level given however many of them are made.
+	 */
+	public static class Precision implements StoppingRule {
+		private final String agent;
+		private final double halfwidth;
+		private final double z;
+
+		/**
+		 * @param agent the label of the agent
+		 * @param halfwidth the largest acceptable half width of the confidence interval of the agent's win rate, e.g. 0.01
+		 * @param confidence the confidence level of the interval over all the looks, e.g. 0.95
+		 * @param looks the most times the rule will be checked, e.g. the game cap over the checking interval
+		 */
+		public Precision(String agent, double halfwidth, double confidence, int looks){
+			this.agent = agent;
+			this.halfwidth = halfwidth;
+			z = WinRate.z(confidence, looks);
+		}
+
+		public boolean done(TournamentStats stats){
+			return WinRate.halfWidth(stats.getWins(agent, -1, 0), stats.getGames(agent, -1, 0), z) <= halfwidth;
+		}
+	}
+
+	/**
+	 * Stops once the confidence intervals of two agents' win rates no longer overlap, so one is significantly better.
+	 * The chance of error is split between the two intervals and across the looks (see WinRate.z), so the chance of
+	 * ever stopping on two agents with the same win rate is at most 1-confidence.
+	 *
+	 * The intervals are of each agent's games alone, and every seat an agent fills is counted as a separate sample.
+	 * Seats in the same game are not independent: two seats of one agent win or lose together when they are on the same side,
+	 * and agents on opposite sides cannot both win. The intervals treat them as independent all the same, so when an agent
+	 * fills several seats of a game, or the two agents often share games, the real error rate differs from the level given.
+	 */
+	public static class Separated implements StoppingRule {
+		private final String a;
+		private final String b;
+		private final double z;
+
+		/**
+		 * @param a the label of one agent
+		 * @param b the label of the other
+		 * @param confidence the confidence level of the comparison over all the looks, e.g. 0.99
+		 * @param looks the most times the rule will be checked, e.g. the game cap over the checking interval
+		 */
+		public Separated(String a, String b, double confidence, int looks){
+			this.a = a;
+			this.b = b;
+			z = WinRate.z(confidence, 2*looks);
+		}
+
+		public boolean done(TournamentStats stats){
+			long wa = stats.getWins(a, -1, 0), ga = stats.getGames(a, -1, 0);
+			long wb = stats.getWins(b, -1, 0), gb = stats.getGames(b, -1, 0);
+			return WinRate.lower(wa, ga, z) > WinRate.upper(wb, gb, z) || WinRate.lower(wb, gb, z) > WinRate.upper(wa, ga, z);
+		}
+	}
+
+	/**
+	 * Stops once a sequential probability ratio test decides whether an agent's win rate is p0 or p1.
+	 */
+	public static class Sprt implements StoppingRule {
+		private final String agent;
+		private final double p0, p1, alpha, beta;
+
+		/**
+		 * @param agent the label of the agent
+		 * @param p0 the win rate of the null hypothesis, e.g. 0.5
+		 * @param p1 the win rate of the alternative, e.g. 0.55
+		 * @param alpha the chance of accepting p1 when p0 is true
+		 * @param beta the chance of accepting p0 when p1 is true
+		 */
+		public Sprt(String agent, double p0, double p1, double alpha, double beta){
+			this.agent = agent;
+			this.p0 = p0;
+			this.p1 = p1;
+			this.alpha = alpha;
+			this.beta = beta;
+		}
+
+		/**
+		 * @param stats the counts of the games played so far
+		 * @return 1 if p1 is accepted, -1 if p0 is accepted, or 0 if undecided
+		 */
+		public int decision(TournamentStats stats){
+			return WinRate.sprt(stats.getWins(agent, -1, 0), stats.getGames(agent, -1, 0), p0, p1, alpha, beta);
+		}
+
+		public boolean done(TournamentStats stats){
+			return decision(stats) != 0;
+		}
+	}
+
+	/**
+	 * Stops once any of several rules would stop.
+	 */
+	public static class Any implements StoppingRule {
+		private final StoppingRule[] rules;
+
+		public Any(StoppingRule... rules){
+			this.rules = rules;
+		}
+
+		public boolean done(TournamentStats stats){
+			for(StoppingRule r : rules) if(r.done(stats)) return true;
+			return false;
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package resistance;
+
+import java.io.*;
+
+/**
+ * A cheap model of the fitness of a genome, learnt from the genomes already played, used to choose which of many
+ * mutants are worth playing.
+ *
+ * The model predicts the fitness of a genome as the mean fitness of its k nearest played genomes, weighted by how many
+ * games each played and by closeness. Distances are measured with each gene divided by its spread over the played genomes,
+ * so genes of very different sizes count alike. The model keeps a bounded number of genomes, replacing the oldest when full.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class Surrogate {
+
+	private final int capacity;
+	private final int genes;
+	private final int k;
+	private final double[] points; //points[i*genes+j] is gene j of genome i
+	private final double[] fitness;
+	private final double[] games;
+	private int size = 0;
+	private int next = 0; //the slot the next genome is written to
+	private final double[] spread; //the standard deviation of each gene over the genomes held
+	private boolean stale = true; //true if the spreads need working out again
+
+	//the k nearest genomes of the last prediction
+	private final double[] nearestdistance;
+	private final int[] nearest;
+
+	/**
+	 * @param capacity the most genomes held
+	 * @param genes the number of genes of a genome
+	 * @param k the number of neighbours a prediction is made from
+	 */
+	public Surrogate(int capacity, int genes, int k){
+		if(capacity < 1 || k < 1) throw new IllegalArgumentException("Capacity and k must be at least 1");
+		this.capacity = capacity;
+		this.genes = genes;
+		this.k = k;
+		points = new double[capacity*genes];
+		fitness = new double[capacity];
+		games = new double[capacity];
+		spread = new double[genes];
+		nearestdistance = new double[k];
+		nearest = new int[k];
+	}
+
+	/**
+	 * @return the number of genomes held
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * @return the most genomes held
+	 */
+	public int getCapacity(){
+		return capacity;
+	}
+
+	/**
+	 * @return the number of genes of a genome
+	 */
+	public int getGenes(){
+		return genes;
+	}
+
+	/**
+	 * @return the number of neighbours a prediction is made from
+	 */
+	public int getK(){
+		return k;
+	}
+
+	/**
+	 * Writes the genomes held, in their slots, with their fitness and games, and the slot the next genome goes in.
+	 * @param out the stream to write to
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void write(DataOutput out) throws IOException{
+		out.writeInt(size);
+		out.writeInt(next);
+		for(int i = 0; i < size*genes; i++) out.writeDouble(points[i]);
+		for(int i = 0; i < size; i++){
+			out.writeDouble(fitness[i]);
+			out.writeDouble(games[i]);
+		}
+	}
+
+	/**
+	 * Reads the genomes written by write, replacing the contents of this model, so it makes the same predictions
+	 * and replaces the same genomes as the model that was written.
+	 * @param in the stream to read from
+	 * @throws IOException if the stream cannot be read, or holds more genomes than this model can
+	 */
+	public void read(DataInput in) throws IOException{
+		int size = in.readInt(), next = in.readInt();
+		if(size < 0 || size > capacity || next < 0 || next >= capacity) throw new IOException("Cannot hold " + size + " genomes in a model of " + capacity);
+		this.size = size;
+		this.next = next;
+		for(int i = 0; i < size*genes; i++) points[i] = in.readDouble();
+		for(int i = 0; i < size; i++){
+			fitness[i] = in.readDouble();
+			games[i] = in.readDouble();
+		}
+		stale = true;
+	}
+
+	/**
+	 * Adds a played genome.
+	 * @param genome the genes of the genome
+	 * @param fitness its fitness, e.g. the fraction of its games won
+	 * @param games the number of games it played, at least one
+	 */
+	public void add(double[] genome, double fitness, double games){
+		if(games <= 0 || fitness != fitness) return;
+		System.arraycopy(genome, 0, points, next*genes, genes);
+		this.fitness[next] = fitness;
+		this.games[next] = games;
+		next = (next + 1) % capacity;
+		if(size < capacity) size++;
+		stale = true;
+	}
+
+	private void spreads(){
+		for(int j = 0; j < genes; j++){
+			double sum = 0, sumsq = 0;
+			for(int i = 0; i < size; i++){
+				double v = points[i*genes + j];
+				sum += v;
+				sumsq += v*v;
+			}
+			double mean = sum/size;
+			double var = sumsq/size - mean*mean;
+			spread[j] = var > 1e-24 ? Math.sqrt(var) : 1;
+		}
+		stale = false;
+	}
+
+	/**
+	 * Predicts the fitness of a genome.
+	 * @param genome the genes of the genome
+	 * @return the predicted fitness, or NaN if no genomes have been added
+	 */
+	public double predict(double[] genome){
+		if(size == 0) return Double.NaN;
+		if(stale) spreads();
+		int found = 0;
+		for(int i = 0; i < size; i++){
+			double d = 0;
+			for(int j = 0; j < genes; j++){
+				double diff = (points[i*genes + j] - genome[j])/spread[j];
+				d += diff*diff;
+			}
+			//keeps the k nearest in order of distance
+			if(found < k || d < nearestdistance[found-1]){
+				int pos = found < k ? found++ : k-1;
+				while(pos > 0 && nearestdistance[pos-1] > d){
+					nearestdistance[pos] = nearestdistance[pos-1];
+					nearest[pos] = nearest[pos-1];
+					pos--;
+				}
+				nearestdistance[pos] = d;
+				nearest[pos] = i;
+			}
+		}
+		double sum = 0, weight = 0;
+		for(int n = 0; n < found; n++){
+			double w = games[nearest[n]]/(Math.sqrt(nearestdistance[n]) + 1e-6);
+			sum += w*fitness[nearest[n]];
+			weight += w;
+		}
+		return sum/weight;
+	}
+}
@@ -0,0 +1,291 @@
+package resistance;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays many games between a lineup of agents across a pool of threads, counting each agent's wins by role and number of players.
+ *
+ * The lineup is declared as a list of seats, each with a label and a factory making a new agent for every game,
+ * and a filler that takes every seat left over once the number of players for a game is drawn.
+ * Agents with the same label are counted together.
+ * Games are handed to the threads in chunks, each thread counting into its own TournamentStats, which are merged in order of the chunks,
+ * and a listener is shown the merged counts as they grow.
+ * A StoppingRule may end the tournament early, once the games so far are enough to tell the agents apart;
+ * it is checked after each chunk is merged, and the number of games set is then a cap.
+ *
+ * Every game is seeded from the tournament's seed and its number, and chunks are merged and checked in order,
+ * so a tournament gives the same counts on any number of threads, including where it stops.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class Tournament {
+
+	/**
+	 * Is shown the counts of a tournament as it is played.
+	 */
+	public interface Listener {
+		/**
+		 * @param stats the counts so far, which must not be kept or changed
+		 */
+		public void progress(TournamentStats stats);
+	}
+
+	private static final int CHUNK = 1024; //the number of games a thread plays before merging its counts
+
+	private final long seed;
+	private final List<String> labels = new ArrayList<String>(); //the distinct labels, in the order first added
+	private final List<Integer> seatAgents = new ArrayList<Integer>(); //the label index of each fixed seat
+	private final List<AgentFactory> seatFactories = new ArrayList<AgentFactory>();
+	private int fillAgent = -1;
+	private AgentFactory fillFactory;
+	private double[] playerweights = {1,1,1,1,1,1}; //playerweights[n-5] is the relative chance of an n player game
+	private long numbgames = 10000;
+	private int threads = 1;
+	private Listener listener;
+	private long reportinterval = 0;
+	private boolean timed = false;
+	private LatencyStats timings;
+	private StoppingRule stoppingrule;
+	private int chunk = CHUNK;
+	private boolean stoppedearly = false;
+
+	/**
+	 * @param seed the master seed of the tournament
+	 */
+	public Tournament(long seed){
+		this.seed = seed;
+	}
+
+	public Tournament(){
+		this(new Random().nextLong());
+	}
+
+	private int label(String label){
+		int i = labels.indexOf(label);
+		if(i == -1){
+			labels.add(label);
+			i = labels.size()-1;
+		}
+		return i;
+	}
+
+	/**
+	 * Adds a seat to the lineup, after the seats already added.
+	 * @param label the label the seat's results are counted under
+	 * @param factory makes the seat's agent for each game
+	 */
+	public void addSeat(String label, AgentFactory factory){
+		if(seatFactories.size() >= 10) throw new IllegalArgumentException("Too many seats");
+		seatAgents.add(label(label));
+		seatFactories.add(factory);
+	}
+
+	/**
+	 * Sets the agent that takes every seat left after the seats added with addSeat.
+	 * @param label the label the filler seats' results are counted under
+	 * @param factory makes the agent of each filler seat for each game
+	 */
+	public void setFill(String label, AgentFactory factory){
+		fillAgent = label(label);
+		fillFactory = factory;
+	}
+
+	/**
+	 * Sets how the number of players in each game is drawn.
+	 * @param weights weights[n-5] is the relative chance of an n player game, for n from 5 to 10
+	 */
+	public void setPlayerWeights(double[] weights){
+		if(weights.length != 6) throw new IllegalArgumentException("Need a weight for each of 5 to 10 players");
+		playerweights = weights.clone();
+	}
+
+	/**
+	 * Plays every game with the same number of players.
+	 * @param players the number of players, from 5 to 10
+	 */
+	public void setPlayers(int players){
+		double[] weights = new double[6];
+		weights[players-5] = 1;
+		setPlayerWeights(weights);
+	}
+
+	/**
+	 * @param games the number of games to play
+	 */
+	public void setGames(long games){
+		numbgames = games;
+	}
+
+	/**
+	 * @param threads the number of threads to play the games on
+	 */
+	public void setThreads(int threads){
+		if(threads < 1) throw new IllegalArgumentException("Threads must be at least 1");
+		this.threads = threads;
+	}
+
+	/**
+	 * @param listener is shown the counts every interval games, and when the tournament ends
+	 * @param interval the number of games between reports, rounded up to a whole number of chunks
+	 */
+	public void setListener(Listener listener, long interval){
+		this.listener = listener;
+		reportinterval = interval;
+	}
+
+	/**
+	 * Stops the tournament once a rule is met, or once the number of games set with setGames is played.
+	 * @param rule the rule, or null to always play every game
+	 * @param interval the number of games between checks of the rule, which is also the size of a chunk
+	 */
+	public void setStoppingRule(StoppingRule rule, int interval){
+		if(interval < 1) throw new IllegalArgumentException("Interval must be at least 1");
+		stoppingrule = rule;
+		chunk = rule == null ? CHUNK : interval;
+	}
+
+	/**
+	 * @return true if the last run was stopped by its stopping rule before playing every game
+	 */
+	public boolean stoppedEarly(){
+		return stoppedearly;
+	}
+
+	/**
+	 * Times every agent call, see Game.setTimings.
+	 * @param timed true to time the calls
+	 */
+	public void setTimed(boolean timed){
+		this.timed = timed;
+	}
+
+	/**
+	 * @return the latencies of the agent calls of the last run, if it was timed
+	 */
+	public LatencyStats getTimings(){
+		return timings;
+	}
+
+	/**
+	 * @return the labels the results are counted under
+	 */
+	public List<String> getAgents(){
+		return Collections.unmodifiableList(labels);
+	}
+
+	/**
+	 * Plays the tournament.
+	 * @return the counts of every game played
+	 */
+	public TournamentStats run(){
+		if(fillFactory == null && seatFactories.size() < 10){
+			for(int p = seatFactories.size()+1; p <= 10; p++)
+				if(p >= 5 && playerweights[p-5] > 0) throw new IllegalStateException("No filler for "+p+" player games");
+		}
+		final TournamentStats total = new TournamentStats(labels);
+		timings = timed ? new LatencyStats() : null;
+		stoppedearly = false;
+		final long chunks = (numbgames+chunk-1)/chunk;
+		final AtomicLong next = new AtomicLong(0);
+		final long[] merged = {0, 0}; //the number of chunks merged, and the number of games at the last report
+		final Map<Long,TournamentStats> finished = new HashMap<Long,TournamentStats>(); //chunks played but waiting for an earlier chunk to be merged
+		final boolean[] stop = {false};
+		Runnable worker = new Runnable(){
+			public void run(){
+				LatencyStats mytimings = timed ? new LatencyStats() : null;
+				long c;
+				while((c = next.getAndIncrement()) < chunks){
+					synchronized(total){
+						if(stop[0]) break;
+					}
+					TournamentStats mine = new TournamentStats(labels);
+					long to = Math.min((c+1)*chunk, numbgames);
+					for(long game = c*chunk; game < to; game++) playGame(Seeds.derive(seed, game), mine, mytimings);
+					synchronized(total){
+						finished.put(c, mine);
+						TournamentStats s;
+						while(!stop[0] && (s = finished.remove(merged[0])) != null){
+							total.merge(s);
+							merged[0]++;
+							if(listener != null && reportinterval > 0 && total.getTotal() - merged[1] >= reportinterval){
+								merged[1] = total.getTotal();
+								listener.progress(total);
+							}
+							if(stoppingrule != null && stoppingrule.done(total)){
+								stop[0] = true;
+								stoppedearly = merged[0] < chunks;
+							}
+						}
+						if(stop[0]) finished.clear();
+					}
+				}
+				if(mytimings != null) timings.merge(mytimings);
+			}
+		};
+		if(threads == 1) worker.run();
+		else {
+			ExecutorService pool = Executors.newFixedThreadPool(threads);
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for(int t = 0; t < threads; t++) futures.add(pool.submit(worker));
+			try{
+				for(Future<?> f : futures) f.get();
+			}catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}catch(ExecutionException e){
+				throw new RuntimeException(e.getCause());
+			}finally{pool.shutdownNow();}
+		}
+		if(listener != null) listener.progress(total);
+		return total;
+	}
+
+	/**
+	 * Plays one game of the tournament and counts its result.
+	 * @param gameseed the seed of the game
+	 * @param stats the counts to add the result to
+	 * @param timings where agent calls are timed, or null
+	 */
+	void playGame(long gameseed, TournamentStats stats, LatencyStats timings){
+		int players = drawPlayers(new Random(gameseed));
+		Game g = new Game(gameseed);
+		if(timings != null) g.setTimings(timings);
+		int[] agents = new int[players];
+		for(int seat = 0; seat < players; seat++){
+			AgentFactory f;
+			if(seat < seatFactories.size()){
+				f = seatFactories.get(seat);
+				agents[seat] = seatAgents.get(seat);
+			}
+			else {
+				f = fillFactory;
+				agents[seat] = fillAgent;
+			}
+			g.addPlayer(f.create(g.getSeatSeed(seat)));
+		}
+		g.setup();
+		boolean resistancewin = g.play();
+		for(int seat = 0; seat < players; seat++){
+			boolean spy = g.isSpy(seat);
+			stats.count(agents[seat], spy, players, spy != resistancewin);
+		}
+		stats.countGame();
+	}
+
+	/**
+	 * @param r the random number generator of the game
+	 * @return a number of players drawn from the player weights
+	 */
+	private int drawPlayers(Random r){
+		double sum = 0;
+		for(double w : playerweights) sum += w;
+		double x = r.nextDouble()*sum;
+		for(int p = 0; p < 6; p++){
+			x -= playerweights[p];
+			if(x < 0 && playerweights[p] > 0) return p+5;
+		}
+		for(int p = 5; p >= 0; p--) if(playerweights[p] > 0) return p+5;
+		throw new IllegalStateException("No player weights");
+	}
+}
@@ -0,0 +1,146 @@
+package resistance;
+
+import java.util.*;
+import java.io.PrintStream;
+
+/**
+ * The games played and won in a tournament, by agent, role and number of players.
+ * 
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class TournamentStats {
+
+	public static final int RESISTANCE = 0;
+	public static final int SPY = 1;
+
+	private final List<String> agents; //the labels of the agents
+	private final long[][][] games; //games[agent][role][players-5] is the number of games the agent played in that role with that many players
+	private final long[][][] wins;
+	private long total = 0; //the number of games played
+
+	/**
+	 * @param agents the labels of the agents in the tournament
+	 */
+	public TournamentStats(List<String> agents){
+		this.agents = new ArrayList<String>(agents);
+		games = new long[agents.size()][2][6];
+		wins = new long[agents.size()][2][6];
+	}
+
+	/**
+	 * Counts the result of one agent in one game.
+	 * @param agent the index of the agent's label
+	 * @param spy true if the agent was a spy
+	 * @param players the number of players in the game
+	 * @param won true if the agent's side won
+	 */
+	void count(int agent, boolean spy, int players, boolean won){
+		int role = spy ? SPY : RESISTANCE;
+		games[agent][role][players-5]++;
+		if(won) wins[agent][role][players-5]++;
+	}
+
+	/**
+	 * Counts one game as played.
+	 */
+	void countGame(){
+		total++;
+	}
+
+	/**
+	 * Adds the counts of another TournamentStats of the same tournament.
+	 * @param other the counts to add
+	 */
+	public void merge(TournamentStats other){
+		for(int a = 0; a < agents.size(); a++)
+			for(int r = 0; r < 2; r++)
+				for(int p = 0; p < 6; p++){
+					games[a][r][p] += other.games[a][r][p];
+					wins[a][r][p] += other.wins[a][r][p];
+				}
+		total += other.total;
+	}
+
+	/**
+	 * @return the labels of the agents
+	 */
+	public List<String> getAgents(){
+		return Collections.unmodifiableList(agents);
+	}
+
+	/**
+	 * @return the number of games played
+	 */
+	public long getTotal(){
+		return total;
+	}
+
+	/**
+	 * @param agent the label of an agent
+	 * @return the index of the agent's counts
+	 */
+	public int indexOf(String agent){
+		int i = agents.indexOf(agent);
+		if(i == -1) throw new IllegalArgumentException("No agent "+agent);
+		return i;
+	}
+
+	/**
+	 * @param agent the label of an agent
+	 * @param role RESISTANCE or SPY, or -1 for both
+	 * @param players the number of players, or 0 for any number
+	 * @return the number of games the agent played in the role with that many players
+	 */
+	public long getGames(String agent, int role, int players){
+		return sum(games[indexOf(agent)], role, players);
+	}
+
+	/**
+	 * @param agent the label of an agent
+	 * @param role RESISTANCE or SPY, or -1 for both
+	 * @param players the number of players, or 0 for any number
+	 * @return the number of games the agent won in the role with that many players
+	 */
+	public long getWins(String agent, int role, int players){
+		return sum(wins[indexOf(agent)], role, players);
+	}
+
+	/**
+	 * @param agent the label of an agent
+	 * @return the fraction of its games the agent won
+	 */
+	public double getWinRate(String agent){
+		return rate(getWins(agent, -1, 0), getGames(agent, -1, 0));
+	}
+
+	private static long sum(long[][] counts, int role, int players){
+		long n = 0;
+		for(int r = 0; r < 2; r++){
+			if(role != -1 && r != role) continue;
+			for(int p = 0; p < 6; p++){
+				if(players != 0 && p != players-5) continue;
+				n += counts[r][p];
+			}
+		}
+		return n;
+	}
+
+	private static double rate(long wins, long games){
+		return games == 0 ? Double.NaN : (double) wins/games;
+	}
+
+	/**
+	 * Prints the win rate of every agent overall, in each role, and with each number of players.
+	 * @param out the stream to print to
+	 */
+	public void print(PrintStream out){
+		out.println("Games: "+total);
+		out.println(String.format("%-16s %10s %7s %7s %7s %7s %7s %7s %7s %7s %7s", "agent", "games", "win", "res", "spy", "5", "6", "7", "8", "9", "10"));
+		for(String agent : agents){
+			StringBuilder sb = new StringBuilder(String.format("%-16s %10d %7.4f %7.4f %7.4f", agent, getGames(agent, -1, 0), getWinRate(agent),
+					rate(getWins(agent, RESISTANCE, 0), getGames(agent, RESISTANCE, 0)), rate(getWins(agent, SPY, 0), getGames(agent, SPY, 0))));
+			for(int p = 5; p <= 10; p++) sb.append(String.format(" %7.4f", rate(getWins(agent, -1, p), getGames(agent, -1, p))));
+			out.println(sb);
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package resistance;
+
+/**
+ * Confidence intervals and sequential tests on win rates.
+ *
+ * A win rate is estimated from the number of games won out of the number played, as a Bernoulli proportion.
+ * The Wilson score interval is used as it stays sensible for rates near 0 or 1 and for few games,
+ * and Wald's sequential probability ratio test decides between two win rates with as few games as it can.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public final class WinRate {
+
+	private WinRate(){}
+
+	/**
+	 * The quantile of the standard normal distribution for a two sided confidence level, by Acklam's rational approximation
+	 * (relative error below 1.2e-9).
+	 * @param confidence the confidence level, e.g. 0.95
+	 * @return z such that a normal variable is within z standard deviations of its mean with the given probability, e.g. 1.96
+	 */
+	public static double z(double confidence){
+		double p = 1 - (1-confidence)/2;
+		double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02, 1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+		double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02, 6.680131188771972e+01, -1.328068155288572e+01};
+		double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00, -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+		double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00, 3.754408661907416e+00};
+		if(p > 1 - 0.02425){
+			double q = Math.sqrt(-2*Math.log(1-p));
+			return -(((((c[0]*q+c[1])*q+c[2])*q+c[3])*q+c[4])*q+c[5]) / ((((d[0]*q+d[1])*q+d[2])*q+d[3])*q+1);
+		}
+		double q = p - 0.5;
+		double r = q*q;
+		return (((((a[0]*r+a[1])*r+a[2])*r+a[3])*r+a[4])*r+a[5])*q / (((((b[0]*r+b[1])*r+b[2])*r+b[3])*r+b[4])*r+1);
+	}
+
+	/**
+	 * The quantile for a confidence level that holds over every one of a number of looks at a growing count of games,
+	 * by splitting the chance of error evenly between the looks (Bonferroni). An interval checked after every chunk of games
+	 * at the plain level would miss its rate far more often than the level says, as each look is another chance to miss.
+	 * @param confidence the confidence level wanted over all the looks, e.g. 0.95
+	 * @param looks the most times the interval will be checked
+	 * @return the quantile of the level 1-(1-confidence)/looks
+	 */
+	public static double z(double confidence, int looks){
+		if(looks < 1) throw new IllegalArgumentException("Looks must be at least 1");
+		return z(1 - (1-confidence)/looks);
+	}
+
+	/**
+	 * @param wins the games won
+	 * @param games the games played
+	 * @param z the normal quantile of the confidence level, see z
+	 * @return the lower end of the Wilson score interval of the win rate, 0 if no games were played
+	 */
+	public static double lower(double wins, double games, double z){
+		if(games <= 0) return 0;
+		return centre(wins, games, z) - halfWidth(wins, games, z);
+	}
+
+	/**
+	 * @param wins the games won
+	 * @param games the games played
+	 * @param z the normal quantile of the confidence level, see z
+	 * @return the upper end of the Wilson score interval of the win rate, 1 if no games were played
+	 */
+	public static double upper(double wins, double games, double z){
+		if(games <= 0) return 1;
+		return centre(wins, games, z) + halfWidth(wins, games, z);
+	}
+
+	/**
+	 * @param wins the games won
+	 * @param games the games played
+	 * @param z the normal quantile of the confidence level, see z
+	 * @return half the width of the Wilson score interval of the win rate, 0.5 if no games were played
+	 */
+	public static double halfWidth(double wins, double games, double z){
+		if(games <= 0) return 0.5;
+		double p = wins/games;
+		double z2 = z*z;
+		return z*Math.sqrt(p*(1-p)/games + z2/(4*games*games)) / (1 + z2/games);
+	}
+
+	private static double centre(double wins, double games, double z){
+		double z2 = z*z;
+		return (wins/games + z2/(2*games)) / (1 + z2/games);
+	}
+
+	/**
+	 * Wald's sequential probability ratio test between a win rate of p0 and one of p1.
+	 * @param wins the games won
+	 * @param games the games played
+	 * @param p0 the win rate of the null hypothesis
+	 * @param p1 the win rate of the alternative hypothesis
+	 * @param alpha the chance of accepting p1 when p0 is true
+	 * @param beta the chance of accepting p0 when p1 is true
+	 * @return 1 if p1 is accepted, -1 if p0 is accepted, or 0 if more games are needed
+	 */
+	public static int sprt(double wins, double games, double p0, double p1, double alpha, double beta){
+		double llr = wins*Math.log(p1/p0) + (games-wins)*Math.log((1-p1)/(1-p0));
+		if(llr >= Math.log((1-beta)/alpha)) return 1;
+		if(llr <= Math.log(beta/(1-alpha))) return -1;
+		return 0;
+	}
+}
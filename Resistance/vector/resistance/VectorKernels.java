@@ -0,0 +1,92 @@
+package resistance;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The batch kernels on the Vector API, working on as many games per instruction as the machine's widest doubles allow,
+ * e.g. eight with AVX-512. Lanes are masked rather than added zeros, so every result is exactly that of the scalar kernels.
+ *
+ * This class needs JDK 16 or later and lives apart from the Java 8 sources. Compile and run it with the module added:
+ * <pre>
+ *  javac --add-modules jdk.incubator.vector -cp &lt;classes&gt; -d &lt;classes&gt; vector/resistance/VectorKernels.java
+ *  java --add-modules jdk.incubator.vector -cp &lt;classes&gt; ...
+ * </pre>
+ * BatchKernels.load finds it by name, so nothing else refers to it.
+ *
+ * @author Tianchi Ren, Jelyn Thong
+ */
+public class VectorKernels implements BatchKernels {
+
+	private static final VectorSpecies<Double> D = DoubleVector.SPECIES_PREFERRED;
+	//the ints with as many lanes as the doubles, which the bitmasks of the games are read as
+	private static final VectorSpecies<Integer> I = VectorSpecies.of(int.class, VectorShape.forBitSize(D.vectorBitSize()/2));
+	//the longs of the same shape as the doubles, which the bitmasks are tested as so their masks need no reshaping
+	private static final VectorSpecies<Long> L = LongVector.SPECIES_PREFERRED;
+
+	public void maskedSum(double[] table, int base, int capacity, int players, int[] masks, int count, double[] sum){
+		int bound = D.loopBound(count);
+		for(int g = 0; g < bound; g += D.length()){
+			LongVector m = (LongVector) IntVector.fromArray(I, masks, g).castShape(L, 0);
+			DoubleVector s = DoubleVector.zero(D);
+			for(int i = 0; i < players; i++){
+				VectorMask<Double> in = m.lanewise(VectorOperators.AND, 1L<<i).compare(VectorOperators.NE, 0).cast(D);
+				s = s.add(DoubleVector.fromArray(D, table, base + i*capacity + g), in);
+			}
+			s.intoArray(sum, g);
+		}
+		for(int g = bound; g < count; g++){
+			int m = masks[g];
+			double s = 0;
+			for(int i = 0; i < players; i++){
+				if((m & 1<<i) != 0) s += table[base + i*capacity + g];
+			}
+			sum[g] = s;
+		}
+	}
+
+	public void maskedAdd(double[] table, int base, int capacity, int players, int[] masks, double[] amount, int count){
+		int bound = D.loopBound(count);
+		for(int g = 0; g < bound; g += D.length()){
+			LongVector m = (LongVector) IntVector.fromArray(I, masks, g).castShape(L, 0);
+			DoubleVector a = DoubleVector.fromArray(D, amount, g);
+			for(int i = 0; i < players; i++){
+				VectorMask<Double> in = m.lanewise(VectorOperators.AND, 1L<<i).compare(VectorOperators.NE, 0).cast(D);
+				int column = base + i*capacity + g;
+				DoubleVector.fromArray(D, table, column).add(a, in).intoArray(table, column);
+			}
+		}
+		for(int i = 0; i < players; i++){
+			int column = base + i*capacity;
+			for(int g = bound; g < count; g++){
+				if((masks[g] & 1<<i) != 0) table[column + g] += amount[g];
+			}
+		}
+	}
+
+	public void quotient(double[] x, int xoff, double[] y, int yoff, double[] z, int zoff, int count, double[] out){
+		int bound = D.loopBound(count);
+		for(int g = 0; g < bound; g += D.length()){
+			DoubleVector denominator = DoubleVector.fromArray(D, y, yoff + g).mul(DoubleVector.fromArray(D, z, zoff + g));
+			DoubleVector.fromArray(D, x, xoff + g).div(denominator).intoArray(out, g);
+		}
+		for(int g = bound; g < count; g++) out[g] = x[xoff + g]/(y[yoff + g]*z[zoff + g]);
+	}
+
+	public void decide(double[] value, double[] draw, boolean above, int count, boolean[] yes){
+		int bound = D.loopBound(count);
+		for(int g = 0; g < bound; g += D.length()){
+			DoubleVector ratio = DoubleVector.fromArray(D, value, g).div(DoubleVector.fromArray(D, draw, g).add(0.00001));
+			ratio.compare(above ? VectorOperators.GT : VectorOperators.LT, 1).intoArray(yes, g);
+		}
+		for(int g = bound; g < count; g++){
+			double ratio = value[g]/(draw[g] + 0.00001);
+			yes[g] = above ? ratio > 1 : ratio < 1;
+		}
+	}
+}